@@ -0,0 +1,51 @@
+package com.base.base.login.backend.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.base.base.login.backend.dto.CacheStatsDTO;
+import com.base.base.login.backend.dto.UserAchievementDTO;
+
+/**
+ * Bandeja por usuario con los logros desbloqueados en segundo plano
+ * pendientes de que el cliente los recoja
+ */
+@Component
+public class AchievementUnlockInbox implements MonitoredCache {
+
+    private final ExpiringCache<String, List<UserAchievementDTO>> cache;
+
+    public AchievementUnlockInbox(
+            @Value("${app.cache.unlock-inbox.max-size:10000}") int maxSize,
+            @Value("${app.cache.unlock-inbox.ttl-seconds:86400}") long ttlSeconds) {
+        this.cache = new ExpiringCache<>("unlock-inbox", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    public void add(String keycloakId, List<UserAchievementDTO> unlocked) {
+        if (unlocked.isEmpty()) {
+            return;
+        }
+        cache.compute(keycloakId, (key, current) -> {
+            List<UserAchievementDTO> merged = current != null ? new ArrayList<>(current) : new ArrayList<>();
+            merged.addAll(unlocked);
+            return List.copyOf(merged);
+        });
+    }
+
+    /**
+     * Devuelve y vacía los logros pendientes del usuario
+     */
+    public List<UserAchievementDTO> drain(String keycloakId) {
+        List<UserAchievementDTO> unlocked = cache.remove(keycloakId);
+        return unlocked != null ? unlocked : List.of();
+    }
+
+    @Override
+    public CacheStatsDTO stats() {
+        return cache.stats();
+    }
+}
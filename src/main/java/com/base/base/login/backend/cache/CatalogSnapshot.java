@@ -0,0 +1,80 @@
+package com.base.base.login.backend.cache;
+
+import java.util.function.Supplier;
+
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Instantánea inmutable de un catálogo que cambia poco (ejercicios, logros)
+ * Se construye bajo demanda y se descarta cuando se confirma un cambio del catálogo;
+ * tras una invalidación sólo un lector recarga y el resto espera su resultado, y la
+ * versión permite no publicar una carga que se solapó con otra invalidación.
+ */
+public class CatalogSnapshot<S> {
+
+    private final Supplier<S> loader;
+    private final SingleFlight<Long, S> loads = new SingleFlight<>();
+    private volatile S snapshot;
+    private long version;
+
+    public CatalogSnapshot(Supplier<S> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Ejecuta la carga en una transacción nueva de sólo lectura, independiente de la del llamante:
+     * al terminar, las entidades leídas quedan desacopladas y se pueden compartir entre hilos
+     */
+    public static <S> S loadDetached(TransactionTemplate transactionTemplate, Supplier<S> load) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        readOnly.setReadOnly(true);
+        return readOnly.execute(status -> load.get());
+    }
+
+    /**
+     * Devuelve la instantánea vigente, cargándola si se ha invalidado
+     */
+    public S get() {
+        S current = snapshot;
+        if (current != null) {
+            return current;
+        }
+
+        long versionBefore;
+        synchronized (this) {
+            if (snapshot != null) {
+                return snapshot;
+            }
+            versionBefore = version;
+        }
+        // Los lectores que llegan tras la misma invalidación comparten una única carga
+        return loads.execute(versionBefore, () -> {
+            // Otra carga de esta misma versión pudo publicar entre la comprobación anterior y aquí
+            S published = snapshot;
+            if (published != null) {
+                return published;
+            }
+            S loaded = loader.get();
+            synchronized (this) {
+                if (version == versionBefore && snapshot == null) {
+                    snapshot = loaded;
+                }
+            }
+            return loaded;
+        });
+    }
+
+    /**
+     * Descarta la instantánea ahora y de nuevo tras el commit de la transacción en curso
+     */
+    public void invalidate() {
+        TransactionHooks.runNowAndAfterCommit(() -> {
+            synchronized (this) {
+                version++;
+                snapshot = null;
+            }
+        });
+    }
+}
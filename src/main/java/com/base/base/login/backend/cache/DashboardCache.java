@@ -0,0 +1,73 @@
+package com.base.base.login.backend.cache;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.base.base.login.backend.dto.CacheStatsDTO;
+import com.base.base.login.backend.dto.DashboardDTO;
+
+/**
+ * Caché por usuario del dashboard ya montado
+ * Las cargas concurrentes del mismo usuario se agrupan en una sola; cualquier escritura que
+ * afecte al dashboard lo invalida, y una carga que se solape con una invalidación no se guarda.
+ */
+@Component
+public class DashboardCache implements MonitoredCache {
+
+    // La generación de cada usuario sube con cada invalidación: una carga que se solapó con una escritura no se guarda
+    private final ExpiringCache<String, DashboardDTO> cache;
+    private final SingleFlight<String, Load> loads = new SingleFlight<>();
+
+    public DashboardCache(
+            @Value("${app.cache.dashboards.max-size:10000}") int maxSize,
+            @Value("${app.cache.dashboards.ttl-seconds:120}") long ttlSeconds) {
+        this.cache = new ExpiringCache<>("dashboards", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Obtiene el dashboard cacheado o lo calcula, compartiendo el cálculo con las peticiones simultáneas
+     */
+    public DashboardDTO get(String keycloakId, Supplier<DashboardDTO> loader) {
+        DashboardDTO cached = cache.get(keycloakId);
+        if (cached != null) {
+            return cached;
+        }
+
+        long generation = cache.generation(keycloakId);
+        Load load = loads.execute(keycloakId, () -> load(keycloakId, loader));
+        // La carga compartida empezó antes de una invalidación que esta petición ya vio: se repite una vez
+        if (load.generation() < generation) {
+            load = loads.execute(keycloakId, () -> load(keycloakId, loader));
+        }
+        return load.dashboard();
+    }
+
+    private Load load(String keycloakId, Supplier<DashboardDTO> loader) {
+        long generation = cache.generation(keycloakId);
+        DashboardDTO dashboard = loader.get();
+        // Un dashboard parcial (secciones fuera de plazo) no se cachea
+        if (!dashboard.isPartial()) {
+            cache.putIfGeneration(keycloakId, generation, dashboard);
+        }
+        return new Load(dashboard, generation);
+    }
+
+    /**
+     * Invalida el dashboard ahora y, si hay transacción activa, de nuevo tras el commit
+     */
+    public void invalidate(String keycloakId) {
+        TransactionHooks.runNowAndAfterCommit(() -> cache.invalidate(keycloakId));
+    }
+
+    @Override
+    public CacheStatsDTO stats() {
+        return cache.stats();
+    }
+
+    // Dashboard calculado junto con la generación del usuario al empezar a cargarlo
+    private record Load(DashboardDTO dashboard, long generation) {
+    }
+}
@@ -0,0 +1,199 @@
+package com.base.base.login.backend.cache;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+
+import com.base.base.login.backend.dto.CacheStatsDTO;
+
+/**
+ * Caché en memoria acotada con expiración por TTL y contadores de aciertos/fallos
+ * Cada clave lleva una generación que sube con cada invalidación o actualización; al invalidar
+ * queda una marca sin valor, de modo que una carga que empezó antes no puede guardar datos viejos
+ * (ver {@link #generation} y {@link #putIfGeneration}).
+ */
+public class ExpiringCache<K, V> {
+
+    private final String name;
+    private final int maxSize;
+    private final long ttlNanos;
+    private final Map<K, Entry<V>> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ExpiringCache(String name, int maxSize, Duration ttl) {
+        this.name = name;
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Obtiene un valor vigente o null si no existe o ha expirado
+     */
+    public V get(K key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null || entry.value() == null) {
+            misses.increment();
+            return null;
+        }
+        if (entry.isExpired(System.nanoTime())) {
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return entry.value();
+    }
+
+    /**
+     * Guarda un valor renovando su TTL
+     */
+    public void put(K key, V value) {
+        long now = System.nanoTime();
+        entries.compute(key, (k, entry) -> new Entry<>(value, generationOf(entry, now), now + ttlNanos));
+        if (entries.size() > maxSize) {
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Generación actual de la clave (0 si no hay entrada vigente); se toma antes de cargar el valor
+     */
+    public long generation(K key) {
+        return generationOf(entries.get(key), System.nanoTime());
+    }
+
+    /**
+     * Guarda el valor sólo si la clave no se ha invalidado ni actualizado desde que se leyó su generación
+     */
+    public boolean putIfGeneration(K key, long generation, V value) {
+        long now = System.nanoTime();
+        boolean[] stored = {false};
+        entries.compute(key, (k, entry) -> {
+            if (generationOf(entry, now) != generation) {
+                return entry;
+            }
+            stored[0] = true;
+            return new Entry<>(value, generation, now + ttlNanos);
+        });
+        if (stored[0] && entries.size() > maxSize) {
+            evictOverflow();
+        }
+        return stored[0];
+    }
+
+    /**
+     * Recalcula un valor vigente y sube la generación de la clave
+     * Si no hay valor en caché sólo sube la generación: una carga en curso ya no se guardará.
+     */
+    public void update(K key, BiFunction<K, V, V> remapping) {
+        long now = System.nanoTime();
+        entries.compute(key, (k, entry) -> {
+            long next = generationOf(entry, now) + 1;
+            V current = entry == null || entry.isExpired(now) ? null : entry.value();
+            V updated = current == null ? null : remapping.apply(k, current);
+            return new Entry<>(updated, next, updated != null ? entry.expiresAt() : now + ttlNanos);
+        });
+    }
+
+    /**
+     * Recalcula el valor de una clave (null si no existe o ha expirado) renovando su TTL
+     */
+    public void compute(K key, BiFunction<K, V, V> remapping) {
+        long now = System.nanoTime();
+        entries.compute(key, (k, entry) -> {
+            V current = entry == null || entry.isExpired(now) ? null : entry.value();
+            V updated = remapping.apply(k, current);
+            return updated == null ? null : new Entry<>(updated, generationOf(entry, now), now + ttlNanos);
+        });
+        if (entries.size() > maxSize) {
+            evictOverflow();
+        }
+    }
+
+    /**
+     * Elimina una clave y devuelve su valor si seguía vigente
+     */
+    public V remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        return entry == null || entry.isExpired(System.nanoTime()) ? null : entry.value();
+    }
+
+    /**
+     * Descarta el valor y deja una marca con la generación siguiente hasta que expire
+     */
+    public void invalidate(K key) {
+        long now = System.nanoTime();
+        entries.compute(key, (k, entry) -> new Entry<>(null, generationOf(entry, now) + 1, now + ttlNanos));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    public CacheStatsDTO stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long requests = hitCount + missCount;
+        return CacheStatsDTO.builder()
+            .name(name)
+            .size((int) entries.values().stream().filter(entry -> entry.value() != null).count())
+            .maxSize(maxSize)
+            .hits(hitCount)
+            .misses(missCount)
+            .evictions(evictions.sum())
+            .hitRate(requests > 0 ? (double) hitCount / requests : 0.0)
+            .build();
+    }
+
+    private static long generationOf(Entry<?> entry, long now) {
+        return entry == null || entry.isExpired(now) ? 0 : entry.generation();
+    }
+
+    private synchronized void evictOverflow() {
+        if (entries.size() <= maxSize) {
+            return;
+        }
+
+        // Primero las entradas expiradas
+        long now = System.nanoTime();
+        entries.entrySet().removeIf(e -> {
+            boolean expired = e.getValue().isExpired(now);
+            if (expired) {
+                evictions.increment();
+            }
+            return expired;
+        });
+
+        // Si sigue lleno, descartar las más próximas a expirar hasta dejar un 10% de margen
+        int target = maxSize - Math.max(1, maxSize / 10);
+        int excess = entries.size() - target;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+            .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+            .limit(excess)
+            .map(Map.Entry::getKey)
+            .toList()
+            .forEach(key -> {
+                if (entries.remove(key) != null) {
+                    evictions.increment();
+                }
+            });
+    }
+
+    // value == null: marca de invalidación que sólo conserva la generación
+    private record Entry<V>(V value, long generation, long expiresAt) {
+        boolean isExpired(long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.base.base.login.backend.cache;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.base.base.login.backend.dto.CacheStatsDTO;
+
+/**
+ * Respuestas recientes de operaciones no repetibles indexadas por Idempotency-Key
+ * La clave se acota al usuario (subject del JWT) y la respuesta guardada recuerda la operación
+ * que la produjo; los reintentos simultáneos con la misma clave esperan al primero.
+ */
+@Component
+public class IdempotencyCache implements MonitoredCache {
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final ExpiringCache<String, StoredResponse> cache;
+    private final SingleFlight<String, StoredResponse> inFlight = new SingleFlight<>();
+
+    public IdempotencyCache(
+            @Value("${app.cache.idempotency.max-size:10000}") int maxSize,
+            @Value("${app.cache.idempotency.ttl-seconds:86400}") long ttlSeconds) {
+        this.cache = new ExpiringCache<>("idempotency", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por (usuario, clave) y devuelve la respuesta guardada en los reintentos
+     * Sólo se guardan las respuestas correctas: si la operación falla, un reintento la vuelve a ejecutar.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String subject, String idempotencyKey, String operation, Supplier<T> action) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new RuntimeException("Idempotency-Key no válida");
+        }
+        String key = subject + ":" + idempotencyKey;
+
+        StoredResponse stored = cache.get(key);
+        if (stored == null) {
+            stored = inFlight.execute(key, () -> {
+                // Otro reintento pudo terminar entre la consulta anterior y la entrada en el vuelo
+                StoredResponse finished = cache.get(key);
+                if (finished != null) {
+                    return finished;
+                }
+                StoredResponse response = new StoredResponse(operation, action.get());
+                cache.put(key, response);
+                return response;
+            });
+        }
+        return (T) stored.responseFor(operation);
+    }
+
+    @Override
+    public CacheStatsDTO stats() {
+        return cache.stats();
+    }
+
+    private record StoredResponse(String operation, Object response) {
+
+        Object responseFor(String requested) {
+            if (!operation.equals(requested)) {
+                throw new RuntimeException("La Idempotency-Key ya se usó en otra operación");
+            }
+            return response;
+        }
+    }
+}
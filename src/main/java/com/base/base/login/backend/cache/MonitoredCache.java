@@ -0,0 +1,10 @@
+package com.base.base.login.backend.cache;
+
+import com.base.base.login.backend.dto.CacheStatsDTO;
+
+/**
+ * Caché cuyas métricas se exponen en el panel de administrador
+ */
+public interface MonitoredCache {
+    CacheStatsDTO stats();
+}
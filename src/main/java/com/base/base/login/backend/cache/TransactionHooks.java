@@ -0,0 +1,46 @@
+package com.base.base.login.backend.cache;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utilidades para sincronizar las cachés en memoria con el ciclo de la transacción
+ */
+public final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * Ejecuta la acción ahora y, si hay transacción activa, de nuevo tras el commit
+     * (pensado para invalidaciones: evita que una lectura concurrente deje en caché
+     * datos anteriores a los cambios que aún no se han confirmado)
+     */
+    public static void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    /**
+     * Ejecuta la acción tras el commit, o inmediatamente si no hay transacción activa
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,59 @@
+package com.base.base.login.backend.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.base.base.login.backend.dto.CacheStatsDTO;
+import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.repository.UserAchievementRepository;
+
+/**
+ * Caché por usuario de los logros desbloqueados
+ * Responde a "¿tiene este logro?" y "¿cuántos tiene?" sin consultar user_achievements.
+ */
+@Component
+public class UnlockedAchievementCache implements MonitoredCache {
+
+    private final UserAchievementRepository userAchievementRepository;
+    // La generación de cada usuario sube con cada escritura: una carga que se solapó con un desbloqueo no se guarda
+    private final ExpiringCache<String, UnlockedAchievements> cache;
+
+    public UnlockedAchievementCache(
+            UserAchievementRepository userAchievementRepository,
+            @Value("${app.cache.unlocked-achievements.max-size:10000}") int maxSize,
+            @Value("${app.cache.unlocked-achievements.ttl-seconds:1800}") long ttlSeconds) {
+        this.userAchievementRepository = userAchievementRepository;
+        this.cache = new ExpiringCache<>("unlocked-achievements", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Obtiene los logros desbloqueados del usuario, cargándolos en una consulta si no están en caché
+     */
+    public UnlockedAchievements get(User user) {
+        UnlockedAchievements unlocked = cache.get(user.getKeycloakId());
+        if (unlocked == null) {
+            long generation = cache.generation(user.getKeycloakId());
+            unlocked = UnlockedAchievements.of(userAchievementRepository.findAchievementIdsByUser(user));
+            cache.putIfGeneration(user.getKeycloakId(), generation, unlocked);
+        }
+        return unlocked;
+    }
+
+    /**
+     * Marca un logro como desbloqueado cuando se confirma la transacción que lo inserta
+     */
+    public void markUnlocked(String keycloakId, Long achievementId) {
+        TransactionHooks.afterCommit(() -> cache.update(keycloakId, (key, unlocked) -> unlocked.with(achievementId)));
+    }
+
+    public void invalidate(String keycloakId) {
+        TransactionHooks.runNowAndAfterCommit(() -> cache.invalidate(keycloakId));
+    }
+
+    @Override
+    public CacheStatsDTO stats() {
+        return cache.stats();
+    }
+}
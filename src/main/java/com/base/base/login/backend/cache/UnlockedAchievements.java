@@ -0,0 +1,48 @@
+package com.base.base.login.backend.cache;
+
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * Conjunto inmutable de logros desbloqueados por un usuario, indexado por id de logro
+ */
+public final class UnlockedAchievements {
+
+    private final BitSet bits;
+    private final int count;
+
+    private UnlockedAchievements(BitSet bits) {
+        this.bits = bits;
+        this.count = bits.cardinality();
+    }
+
+    public static UnlockedAchievements of(Collection<Long> achievementIds) {
+        BitSet bits = new BitSet();
+        for (Long id : achievementIds) {
+            bits.set(Math.toIntExact(id));
+        }
+        return new UnlockedAchievements(bits);
+    }
+
+    public boolean contains(Long achievementId) {
+        return achievementId != null
+            && achievementId <= Integer.MAX_VALUE
+            && bits.get(achievementId.intValue());
+    }
+
+    public int count() {
+        return count;
+    }
+
+    /**
+     * Devuelve una copia que incluye el logro indicado
+     */
+    public UnlockedAchievements with(Long achievementId) {
+        if (contains(achievementId)) {
+            return this;
+        }
+        BitSet copy = (BitSet) bits.clone();
+        copy.set(Math.toIntExact(achievementId));
+        return new UnlockedAchievements(copy);
+    }
+}
@@ -0,0 +1,80 @@
+package com.base.base.login.backend.cache;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.base.base.login.backend.dto.CacheStatsDTO;
+import com.base.base.login.backend.entity.User;
+
+/**
+ * Caché de usuarios resueltos por el subject del JWT (keycloakId)
+ * Guarda copias desacopladas de la entidad: sólo sirven para lectura y para
+ * identificar al usuario en consultas; los cambios se persisten sobre la entidad gestionada.
+ */
+@Component
+public class UserCache implements MonitoredCache {
+
+    private final ExpiringCache<String, User> cache;
+
+    public UserCache(
+            @Value("${app.cache.users.max-size:10000}") int maxSize,
+            @Value("${app.cache.users.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = new ExpiringCache<>("users", maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    /**
+     * Devuelve una copia del usuario cacheado o null si no está
+     */
+    public User get(String keycloakId) {
+        User cached = cache.get(keycloakId);
+        return cached != null ? copyOf(cached) : null;
+    }
+
+    /**
+     * Generación actual del usuario; se toma antes de leerlo de base de datos
+     */
+    public long generation(String keycloakId) {
+        return cache.generation(keycloakId);
+    }
+
+    /**
+     * Guarda una copia del usuario salvo que se haya invalidado desde que se tomó la generación
+     */
+    public void put(User user, long generation) {
+        cache.putIfGeneration(user.getKeycloakId(), generation, copyOf(user));
+    }
+
+    /**
+     * Invalida la entrada ahora y, si hay transacción activa, de nuevo tras el commit
+     * para no dejar en caché datos leídos antes de que se confirmen los cambios
+     */
+    public void invalidate(String keycloakId) {
+        TransactionHooks.runNowAndAfterCommit(() -> cache.invalidate(keycloakId));
+    }
+
+    @Override
+    public CacheStatsDTO stats() {
+        return cache.stats();
+    }
+
+    private static User copyOf(User user) {
+        return User.builder()
+            .keycloakId(user.getKeycloakId())
+            .username(user.getUsername())
+            .email(user.getEmail())
+            .firstName(user.getFirstName())
+            .lastName(user.getLastName())
+            .totalPoints(user.getTotalPoints())
+            .currentLevel(user.getCurrentLevel())
+            .workoutsCompleted(user.getWorkoutsCompleted())
+            .isActive(user.getIsActive())
+            .createdAt(user.getCreatedAt())
+            .updatedAt(user.getUpdatedAt())
+            .lastWorkoutDate(user.getLastWorkoutDate())
+            .currentStreak(user.getCurrentStreak())
+            .longestStreak(user.getLongestStreak())
+            .build();
+    }
+}
@@ -0,0 +1,35 @@
+package com.base.base.login.backend.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Detecta el motor de base de datos para elegir la variante de SQL nativo
+ * (PostgreSQL en producción, H2 como alternativa compatible)
+ */
+@Component
+@Slf4j
+public class DatabasePlatform {
+
+    private final boolean postgres;
+
+    public DatabasePlatform(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            String product = connection.getMetaData().getDatabaseProductName();
+            this.postgres = product != null && product.toLowerCase().contains("postgresql");
+            log.info("Base de datos detectada: {}", product);
+        } catch (SQLException e) {
+            throw new RuntimeException("No se pudo detectar la base de datos", e);
+        }
+    }
+
+    public boolean isPostgres() {
+        return postgres;
+    }
+}
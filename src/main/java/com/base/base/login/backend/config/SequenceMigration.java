@@ -0,0 +1,34 @@
+package com.base.base.login.backend.config;
+
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.boot.jdbc.init.DataSourceScriptDatabaseInitializer;
+import org.springframework.boot.sql.init.DatabaseInitializationMode;
+import org.springframework.boot.sql.init.DatabaseInitializationSettings;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+/**
+ * Ajusta las secuencias de ids en PostgreSQL antes de que se inserte ningún dato
+ * (las tablas existentes se crearon con IDENTITY y sus ids pueden ir por delante de las secuencias)
+ * Es un inicializador de scripts: Spring Boot hace que el EntityManagerFactory dependa de él,
+ * así que se ejecuta antes de que Hibernate valide el esquema y de que el servidor atienda peticiones.
+ */
+@Configuration
+public class SequenceMigration {
+
+    private static final String SCRIPT = "classpath:db/pooled-sequences-postgresql.sql";
+
+    @Bean
+    DataSourceScriptDatabaseInitializer pooledSequenceInitializer(DataSource dataSource, DatabasePlatform databasePlatform) {
+        DatabaseInitializationSettings settings = new DatabaseInitializationSettings();
+        settings.setSchemaLocations(List.of(SCRIPT));
+        // El script es un único bloque DO con ';' internos
+        settings.setSeparator(ScriptUtils.EOF_STATEMENT_SEPARATOR);
+        settings.setMode(databasePlatform.isPostgres() ? DatabaseInitializationMode.ALWAYS : DatabaseInitializationMode.NEVER);
+        return new DataSourceScriptDatabaseInitializer(dataSource, settings);
+    }
+}
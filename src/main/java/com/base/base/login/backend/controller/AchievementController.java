@@ -7,6 +7,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.base.base.login.backend.dto.AchievementDTO;
 import com.base.base.login.backend.dto.AchievementRequest;
@@ -34,9 +35,9 @@ public class AchievementController {
      */
     @GetMapping
     @PreAuthorize("hasRole('default-roles-neroapps')")
-    public ResponseEntity<List<AchievementDTO>> getAllAchievements() {
-        List<AchievementDTO> achievements = achievementService.getAllActiveAchievements();
-        return ResponseEntity.ok(achievements);
+    public ResponseEntity<List<AchievementDTO>> getAllAchievements(WebRequest webRequest) {
+        return ConditionalResponses.withETag(webRequest, achievementService.getCatalogETag(),
+            achievementService::getAllActiveAchievements);
     }
 
     /**
@@ -50,6 +51,17 @@ public class AchievementController {
         return ResponseEntity.ok(achievements);
     }
 
+    /**
+     * GET /api/achievements/my/unlocks - Obtiene (y marca como vistos) los logros desbloqueados en segundo plano
+     */
+    @GetMapping("/my/unlocks")
+    @PreAuthorize("hasRole('default-roles-neroapps')")
+    public ResponseEntity<List<UserAchievementDTO>> getMyRecentUnlocks(Authentication authentication) {
+        User user = userService.getCurrentUser(authentication);
+        List<UserAchievementDTO> unlocks = achievementService.takeRecentUnlocks(user);
+        return ResponseEntity.ok(unlocks);
+    }
+
     /**
      * GET /api/achievements/{id} - Obtiene un logro por ID
      */
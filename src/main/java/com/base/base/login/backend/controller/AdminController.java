@@ -3,19 +3,28 @@ package com.base.base.login.backend.controller;
 import java.util.List;
 
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.base.base.login.backend.cache.MonitoredCache;
 import com.base.base.login.backend.dto.AchievementDTO;
+import com.base.base.login.backend.dto.BackgroundJobDTO;
+import com.base.base.login.backend.dto.CacheStatsDTO;
 import com.base.base.login.backend.dto.ExerciseDTO;
 import com.base.base.login.backend.dto.LeaderboardDTO;
 import com.base.base.login.backend.dto.UserDTO;
 import com.base.base.login.backend.entity.User;
 import com.base.base.login.backend.repository.UserRepository;
+import com.base.base.login.backend.service.AchievementBackfillService;
 import com.base.base.login.backend.service.AchievementService;
 import com.base.base.login.backend.service.DashboardService;
 import com.base.base.login.backend.service.ExerciseService;
+import com.base.base.login.backend.service.HistoryExportService;
+import com.base.base.login.backend.service.StreakBackfillJob;
 import com.base.base.login.backend.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -34,6 +43,10 @@ public class AdminController {
     private final UserRepository userRepository;
     private final ExerciseService exerciseService;
     private final AchievementService achievementService;
+    private final List<MonitoredCache> caches;
+    private final StreakBackfillJob streakBackfillJob;
+    private final AchievementBackfillService achievementBackfillService;
+    private final HistoryExportService historyExportService;
 
     /**
      * GET /api/admin/leaderboard - Obtiene el leaderboard
@@ -73,6 +86,21 @@ public class AdminController {
         return ResponseEntity.ok(userService.toDTO(user));
     }
 
+    /**
+     * GET /api/admin/users/{keycloakId}/export - Descarga el historial completo de un usuario en NDJSON
+     */
+    @GetMapping("/users/{keycloakId}/export")
+    @PreAuthorize("hasRole('nero-admin')")
+    public ResponseEntity<StreamingResponseBody> exportUserHistory(@PathVariable String keycloakId) {
+        if (!userRepository.existsById(keycloakId)) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
+        return ResponseEntity.ok()
+            .contentType(HistoryExportService.NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + keycloakId + ".ndjson\"")
+            .body(historyExportService.export(keycloakId));
+    }
+
     /**
      * GET /api/admin/exercises - Obtiene todos los ejercicios (incluidos inactivos)
      */
@@ -92,4 +120,63 @@ public class AdminController {
         List<AchievementDTO> achievements = achievementService.getAllActiveAchievements();
         return ResponseEntity.ok(achievements);
     }
+
+    /**
+     * GET /api/admin/caches - Obtiene las métricas de las cachés en memoria
+     */
+    @GetMapping("/caches")
+    @PreAuthorize("hasRole('nero-admin')")
+    public ResponseEntity<List<CacheStatsDTO>> getCacheStats() {
+        List<CacheStatsDTO> stats = caches.stream()
+            .map(MonitoredCache::stats)
+            .toList();
+        return ResponseEntity.ok(stats);
+    }
+
+    /**
+     * POST /api/admin/jobs/streak-backfill - Recalcula las rachas de todos los usuarios
+     */
+    @PostMapping("/jobs/streak-backfill")
+    @PreAuthorize("hasRole('nero-admin')")
+    public ResponseEntity<BackgroundJobDTO> startStreakBackfill() {
+        BackgroundJobDTO job = streakBackfillJob.start();
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * GET /api/admin/jobs/streak-backfill - Obtiene el estado del recálculo de rachas
+     */
+    @GetMapping("/jobs/streak-backfill")
+    @PreAuthorize("hasRole('nero-admin')")
+    public ResponseEntity<BackgroundJobDTO> getStreakBackfillStatus() {
+        return ResponseEntity.ok(streakBackfillJob.getStatus());
+    }
+
+    /**
+     * POST /api/admin/achievements/{id}/backfill - Asigna el logro a los usuarios que ya lo cumplen
+     */
+    @PostMapping("/achievements/{id}/backfill")
+    @PreAuthorize("hasRole('nero-admin')")
+    public ResponseEntity<BackgroundJobDTO> startAchievementBackfill(@PathVariable Long id) {
+        BackgroundJobDTO job = achievementBackfillService.start(id);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+    }
+
+    /**
+     * GET /api/admin/jobs/achievement-backfill - Obtiene las asignaciones retroactivas de logros
+     */
+    @GetMapping("/jobs/achievement-backfill")
+    @PreAuthorize("hasRole('nero-admin')")
+    public ResponseEntity<List<BackgroundJobDTO>> getAchievementBackfills() {
+        return ResponseEntity.ok(achievementBackfillService.getJobs());
+    }
+
+    /**
+     * GET /api/admin/jobs/achievement-backfill/{jobId} - Obtiene el estado de una asignación retroactiva
+     */
+    @GetMapping("/jobs/achievement-backfill/{jobId}")
+    @PreAuthorize("hasRole('nero-admin')")
+    public ResponseEntity<BackgroundJobDTO> getAchievementBackfill(@PathVariable Long jobId) {
+        return ResponseEntity.ok(achievementBackfillService.getJob(jobId));
+    }
 }
@@ -0,0 +1,34 @@
+package com.base.base.login.backend.controller;
+
+import java.util.function.Supplier;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Respuestas GET condicionales: ETag fuerte y 304 si coincide con If-None-Match
+ * El cuerpo sólo se construye cuando el cliente no tiene ya la versión actual.
+ */
+final class ConditionalResponses {
+
+    // El cliente puede guardar la respuesta pero debe revalidarla siempre
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalResponses() {
+    }
+
+    static <T> ResponseEntity<T> withETag(WebRequest request, String etag, Supplier<T> body) {
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(REVALIDATE)
+                .build();
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(REVALIDATE)
+            .body(body.get());
+    }
+}
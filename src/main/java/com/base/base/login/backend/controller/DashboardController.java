@@ -1,14 +1,17 @@
 package com.base.base.login.backend.controller;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.base.base.login.backend.dto.DashboardDTO;
 import com.base.base.login.backend.dto.UserDTO;
 import com.base.base.login.backend.entity.User;
 import com.base.base.login.backend.service.DashboardService;
+import com.base.base.login.backend.service.HistoryExportService;
 import com.base.base.login.backend.service.UserService;
 
 import lombok.RequiredArgsConstructor;
@@ -24,6 +27,7 @@ public class DashboardController {
 
     private final DashboardService dashboardService;
     private final UserService userService;
+    private final HistoryExportService historyExportService;
 
     /**
      * GET /api/dashboard - Obtiene el dashboard completo del usuario
@@ -46,4 +50,17 @@ public class DashboardController {
         UserDTO userDTO = userService.toDTO(user);
         return ResponseEntity.ok(userDTO);
     }
+
+    /**
+     * GET /api/dashboard/export - Descarga el historial completo del usuario en NDJSON
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('default-roles-neroapps')")
+    public ResponseEntity<StreamingResponseBody> exportHistory(Authentication authentication) {
+        User user = userService.getCurrentUser(authentication);
+        return ResponseEntity.ok()
+            .contentType(HistoryExportService.NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"herotraining-history.ndjson\"")
+            .body(historyExportService.export(user.getKeycloakId()));
+    }
 }
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import com.base.base.login.backend.dto.ExerciseDTO;
 import com.base.base.login.backend.dto.ExerciseRequest;
@@ -29,9 +30,9 @@ public class ExerciseController {
      */
     @GetMapping
     @PreAuthorize("hasRole('default-roles-neroapps')")
-    public ResponseEntity<List<ExerciseDTO>> getAllExercises() {
-        List<ExerciseDTO> exercises = exerciseService.getAllActiveExercises();
-        return ResponseEntity.ok(exercises);
+    public ResponseEntity<List<ExerciseDTO>> getAllExercises(WebRequest webRequest) {
+        return ConditionalResponses.withETag(webRequest, exerciseService.getCatalogETag(),
+            exerciseService::getAllActiveExercises);
     }
 
     /**
@@ -49,9 +50,11 @@ public class ExerciseController {
      */
     @GetMapping("/category/{category}")
     @PreAuthorize("hasRole('default-roles-neroapps')")
-    public ResponseEntity<List<ExerciseDTO>> getExercisesByCategory(@PathVariable String category) {
-        List<ExerciseDTO> exercises = exerciseService.getExercisesByCategory(category);
-        return ResponseEntity.ok(exercises);
+    public ResponseEntity<List<ExerciseDTO>> getExercisesByCategory(
+            @PathVariable String category,
+            WebRequest webRequest) {
+        return ConditionalResponses.withETag(webRequest, exerciseService.getCatalogETag(),
+            () -> exerciseService.getExercisesByCategory(category));
     }
 
     /**
@@ -13,9 +13,14 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.base.base.login.backend.cache.IdempotencyCache;
+import com.base.base.login.backend.dto.CursorPageDTO;
 import com.base.base.login.backend.dto.WorkoutDTO;
 import com.base.base.login.backend.dto.WorkoutFavoriteRequest;
 import com.base.base.login.backend.dto.WorkoutRequest;
@@ -34,18 +39,34 @@ import lombok.RequiredArgsConstructor;
 @CrossOrigin(origins = {"http://localhost:4200", "http://localhost:4201", "https://herotraining.csanchezm.es"})
 public class WorkoutController {
 
+    private static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
     private final WorkoutService workoutService;
     private final UserService userService;
+    private final IdempotencyCache idempotencyCache;
 
     /**
      * GET /api/workouts - Obtiene todas las rutinas del usuario
      */
     @GetMapping
     @PreAuthorize("hasRole('default-roles-neroapps')")
-    public ResponseEntity<List<WorkoutDTO>> getUserWorkouts(Authentication authentication) {
+    public ResponseEntity<List<WorkoutDTO>> getUserWorkouts(Authentication authentication, WebRequest webRequest) {
         User user = userService.getCurrentUser(authentication);
-        List<WorkoutDTO> workouts = workoutService.getUserWorkouts(user);
-        return ResponseEntity.ok(workouts);
+        return ConditionalResponses.withETag(webRequest, workoutService.getUserWorkoutsETag(user),
+            () -> workoutService.getUserWorkouts(user));
+    }
+
+    /**
+     * GET /api/workouts/page - Obtiene el historial de rutinas paginado por cursor
+     */
+    @GetMapping("/page")
+    @PreAuthorize("hasRole('default-roles-neroapps')")
+    public ResponseEntity<CursorPageDTO<WorkoutDTO>> getUserWorkoutsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        User user = userService.getCurrentUser(authentication);
+        return ResponseEntity.ok(workoutService.getUserWorkoutsPage(user, cursor, size));
     }
 
     /**
@@ -70,6 +91,19 @@ public class WorkoutController {
         return ResponseEntity.ok(workouts);
     }
 
+    /**
+     * GET /api/workouts/completed/page - Obtiene las rutinas completadas paginadas por cursor
+     */
+    @GetMapping("/completed/page")
+    @PreAuthorize("hasRole('default-roles-neroapps')")
+    public ResponseEntity<CursorPageDTO<WorkoutDTO>> getCompletedWorkoutsPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+        User user = userService.getCurrentUser(authentication);
+        return ResponseEntity.ok(workoutService.getCompletedWorkoutsPage(user, cursor, size));
+    }
+
     /**
      * GET /api/workouts/{id} - Obtiene una rutina por ID
      */
@@ -109,14 +143,23 @@ public class WorkoutController {
 
     /**
      * POST /api/workouts/{id}/complete - Marca una rutina como completada
+     * Con cabecera Idempotency-Key, los reintentos devuelven la respuesta original sin volver a completarla
      */
     @PostMapping("/{id}/complete")
     @PreAuthorize("hasRole('default-roles-neroapps')")
     public ResponseEntity<WorkoutDTO> completeWorkout(
             @PathVariable Long id,
+            @RequestHeader(value = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
-        User user = userService.getCurrentUser(authentication);
-        WorkoutDTO completed = workoutService.completeWorkout(id, user);
+        if (idempotencyKey == null) {
+            User user = userService.getCurrentUser(authentication);
+            return ResponseEntity.ok(workoutService.completeWorkout(id, user));
+        }
+
+        // La clave se acota al subject del JWT, antes de resolver el usuario: un reintento no consulta nada
+        WorkoutDTO completed = idempotencyCache.execute(authentication.getName(), idempotencyKey,
+            "complete-workout:" + id,
+            () -> workoutService.completeWorkout(id, userService.getCurrentUser(authentication)));
         return ResponseEntity.ok(completed);
     }
 
@@ -19,6 +19,7 @@ public class AchievementDTO {
     private String type;
     private String iconUrl;
     private Integer requiredValue;
+    private Long exerciseId; // Sólo para SPECIFIC_EXERCISE
     private Integer pointsReward;
     private String rarity;
     private Boolean isActive;
@@ -18,6 +18,7 @@ public class AchievementRequest {
     private String type; // WORKOUT_COUNT, TOTAL_POINTS, LEVEL_REACHED, etc.
     private String iconUrl;
     private Integer requiredValue;
+    private Long exerciseId; // Sólo para SPECIFIC_EXERCISE
     private Integer pointsReward;
     private String rarity; // COMMON, UNCOMMON, RARE, EPIC, LEGENDARY
 }
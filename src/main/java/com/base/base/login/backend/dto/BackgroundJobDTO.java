@@ -0,0 +1,27 @@
+package com.base.base.login.backend.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con el estado de un proceso en segundo plano lanzado desde administración
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BackgroundJobDTO {
+    private Long id;
+    private String name;
+    private Long achievementId;
+    private String cursor;
+    private String status;
+    private Long processedUsers;
+    private Long updatedUsers;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+}
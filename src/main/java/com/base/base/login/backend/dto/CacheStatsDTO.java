@@ -0,0 +1,23 @@
+package com.base.base.login.backend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO con las métricas de una caché en memoria
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CacheStatsDTO {
+    private String name;
+    private Integer size;
+    private Integer maxSize;
+    private Long hits;
+    private Long misses;
+    private Long evictions;
+    private Double hitRate;
+}
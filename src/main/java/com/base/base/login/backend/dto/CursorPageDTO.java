@@ -0,0 +1,21 @@
+package com.base.base.login.backend.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Página de resultados paginados por cursor (keyset)
+ * nextCursor se envía en la siguiente petición; es null cuando no hay más resultados.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CursorPageDTO<T> {
+    private List<T> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
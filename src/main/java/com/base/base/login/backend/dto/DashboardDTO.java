@@ -19,6 +19,8 @@ public class DashboardDTO {
     private List<WorkoutDTO> recentWorkouts;
     private List<UserAchievementDTO> recentAchievements;
     private List<WorkoutDTO> favoriteWorkouts;
+    // Alguna sección no respondió a tiempo y se devolvió con valores por defecto
+    private boolean partial;
     
     @Data
     @NoArgsConstructor
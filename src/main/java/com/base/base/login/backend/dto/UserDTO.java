@@ -21,6 +21,8 @@ public class UserDTO {
     private Integer totalPoints;
     private Integer currentLevel;
     private Integer workoutsCompleted;
+    private Integer currentStreak;
+    private Integer longestStreak;
     private String badge;
     private Integer pointsForNextLevel;
     private Integer achievementsCount;
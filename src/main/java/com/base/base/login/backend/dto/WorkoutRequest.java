@@ -24,6 +24,7 @@ public class WorkoutRequest {
     @AllArgsConstructor
     @Builder
     public static class WorkoutExerciseRequest {
+        private Long id; // Línea existente al editar (opcional; si falta se empareja por orderIndex)
         private Long exerciseId;
         private Integer sets;
         private Integer reps;
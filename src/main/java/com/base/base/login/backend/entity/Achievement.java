@@ -19,7 +19,8 @@ import lombok.NoArgsConstructor;
 public class Achievement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "achievements_seq")
+    @SequenceGenerator(name = "achievements_seq", sequenceName = "achievements_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -39,6 +40,10 @@ public class Achievement {
     @Column(name = "required_value")
     private Integer requiredValue;
 
+    // Ejercicio objetivo para los logros SPECIFIC_EXERCISE
+    @Column(name = "exercise_id")
+    private Long exerciseId;
+
     @Column(name = "points_reward")
     @Builder.Default
     private Integer pointsReward = 50;
@@ -75,7 +80,7 @@ public class Achievement {
         LEVEL_REACHED,      // Por alcanzar un nivel
         CONSECUTIVE_DAYS,   // Por días consecutivos entrenando
         SPECIFIC_EXERCISE,  // Por completar un ejercicio específico
-        CATEGORY_MASTER     // Por completar X workouts de una categoría
+        CATEGORY_MASTER     // Por completar X ejercicios distintos
     }
 
     public enum AchievementRarity {
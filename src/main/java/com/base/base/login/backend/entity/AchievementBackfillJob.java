@@ -0,0 +1,75 @@
+package com.base.base.login.backend.entity;
+
+import java.time.LocalDateTime;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad AchievementBackfillJob - Asignación retroactiva de un logro a los usuarios que ya lo cumplen
+ * Guarda el cursor del último usuario procesado para poder reanudar tras un reinicio
+ */
+@Entity
+@Table(name = "achievement_backfill_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AchievementBackfillJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "achievement_backfill_jobs_seq")
+    @SequenceGenerator(name = "achievement_backfill_jobs_seq", sequenceName = "achievement_backfill_jobs_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "achievement_id", nullable = false)
+    private Long achievementId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private JobStatus status = JobStatus.RUNNING;
+
+    // keycloakId del último usuario procesado (keyset)
+    @Column(name = "last_user_id")
+    private String lastUserId;
+
+    @Column(name = "processed_users")
+    @Builder.Default
+    private Long processedUsers = 0L;
+
+    @Column(name = "unlocked_users")
+    @Builder.Default
+    private Long unlockedUsers = 0L;
+
+    @Column(columnDefinition = "TEXT")
+    private String error;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        startedAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum JobStatus {
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
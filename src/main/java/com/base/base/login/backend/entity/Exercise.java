@@ -19,7 +19,8 @@ import lombok.NoArgsConstructor;
 public class Exercise {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "exercises_seq")
+    @SequenceGenerator(name = "exercises_seq", sequenceName = "exercises_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -1,9 +1,14 @@
 package com.base.base.login.backend.entity;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,9 +18,12 @@ import lombok.NoArgsConstructor;
 /**
  * Entidad User - Sincronizada con Keycloak
  * Almacena información adicional del usuario no gestionada por Keycloak
+ * Los contadores (puntos, nivel, rutinas, rachas) se actualizan con sentencias atómicas
+ * en UserRepositoryImpl; @DynamicUpdate evita que otras escrituras de la entidad los pisen.
  */
 @Entity
 @Table(name = "users")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,6 +33,11 @@ public class User {
     private static final int BASE_POINTS = 100;
     private static final int MAX_LEVEL = 99;
 
+    // Curva de niveles precalculada: índice = nivel (la posición 0 no se usa)
+    private static final long[] LEVEL_THRESHOLDS = buildLevelThresholds();
+    private static final int[] POINTS_FOR_NEXT_LEVEL = buildPointsForNextLevel();
+    private static final String[] BADGES = buildBadges();
+
     @Id
     @Column(name = "keycloak_id", nullable = false, unique = true)
     private String keycloakId; // UUID de Keycloak
@@ -67,6 +80,17 @@ public class User {
     @Column(name = "last_workout_date")
     private LocalDateTime lastWorkoutDate;
 
+    // Rachas de días consecutivos entrenando, mantenidas en cada rutina completada
+    @Column(name = "current_streak")
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer currentStreak = 0;
+
+    @Column(name = "longest_streak")
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer longestStreak = 0;
+
     // Relaciones
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
@@ -87,18 +111,32 @@ public class User {
         updatedAt = LocalDateTime.now();
     }
 
+    /**
+     * Racha actual a día de hoy (la guardada sólo se actualiza al completar una rutina)
+     */
+    @Transient
+    public int getEffectiveStreak() {
+        return effectiveStreak(currentStreak, lastWorkoutDate != null ? lastWorkoutDate.toLocalDate() : null, LocalDate.now());
+    }
+
+    /**
+     * La racha guardada sigue viva si el último entrenamiento fue hoy o ayer; si no, es 0
+     */
+    public static int effectiveStreak(Integer storedStreak, LocalDate lastWorkoutDay, LocalDate today) {
+        if (storedStreak == null || lastWorkoutDay == null || lastWorkoutDay.isBefore(today.minusDays(1))) {
+            return 0;
+        }
+        return storedStreak;
+    }
+
     /**
      * Calcula el badge del usuario según su nivel
      */
     @Transient
     public String getBadge() {
-        if (currentLevel >= 50) return "LEGENDARY_HERO";
-        if (currentLevel >= 40) return "MASTER_HERO";
-        if (currentLevel >= 30) return "VETERAN_HERO";
-        if (currentLevel >= 20) return "PROFESSIONAL_HERO";
-        if (currentLevel >= 10) return "ADVANCED_HERO";
-        if (currentLevel >= 5) return "INTERMEDIATE_HERO";
-        return "BEGINNER_HERO";
+        if (currentLevel >= MAX_LEVEL) return BADGES[MAX_LEVEL];
+        if (currentLevel < 1) return BADGES[1];
+        return BADGES[currentLevel];
     }
 
     /**
@@ -109,12 +147,7 @@ public class User {
         if (currentLevel >= MAX_LEVEL) {
             return 0;
         }
-
-        long required = (long) BASE_POINTS << (currentLevel - 1);
-        if (required > Integer.MAX_VALUE) {
-            return Integer.MAX_VALUE;
-        }
-        return (int) required;
+        return POINTS_FOR_NEXT_LEVEL[Math.max(1, currentLevel)];
     }
 
     /**
@@ -127,24 +160,58 @@ public class User {
 
         this.totalPoints += points;
 
-        // Calcular nuevo nivel con requisitos exponenciales hasta MAX_LEVEL
-        int level = this.currentLevel;
-        while (level < MAX_LEVEL && this.totalPoints >= cumulativePointsForLevel(level + 1)) {
-            level++;
-        }
-        this.currentLevel = level;
+        // El nivel nunca baja: se queda con el mayor entre el actual y el que dan los puntos
+        this.currentLevel = Math.max(this.currentLevel, levelForPoints(this.totalPoints));
+    }
+
+    /**
+     * Nivel que corresponde a un total de puntos (búsqueda binaria en la curva precalculada)
+     */
+    public static int levelForPoints(long totalPoints) {
+        int index = Arrays.binarySearch(LEVEL_THRESHOLDS, 1, MAX_LEVEL + 1, totalPoints);
+        int level = index >= 0 ? index : -index - 2;
+        return Math.max(1, Math.min(MAX_LEVEL, level));
     }
 
-    private long cumulativePointsForLevel(int targetLevel) {
-        // Puntos totales requeridos para alcanzar targetLevel (nivel 1 requiere 0)
+    private static long[] buildLevelThresholds() {
+        // Puntos totales requeridos para alcanzar cada nivel (nivel 1 requiere 0), saturando en Long.MAX_VALUE
+        long[] thresholds = new long[MAX_LEVEL + 1];
         long total = 0;
         long required = BASE_POINTS;
 
-        for (int lvl = 1; lvl < targetLevel && lvl < MAX_LEVEL + 1; lvl++) {
-            total = Math.min(Long.MAX_VALUE, total + required);
-            required = Math.min(Long.MAX_VALUE, required * 2);
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            thresholds[level] = total;
+            total = saturatedAdd(total, required);
+            required = saturatedAdd(required, required);
         }
+        return thresholds;
+    }
+
+    private static int[] buildPointsForNextLevel() {
+        int[] points = new int[MAX_LEVEL];
+        for (int level = 1; level < MAX_LEVEL; level++) {
+            long required = (long) BASE_POINTS << (level - 1);
+            points[level] = required > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) required;
+        }
+        return points;
+    }
+
+    private static String[] buildBadges() {
+        String[] badges = new String[MAX_LEVEL + 1];
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            if (level >= 50) badges[level] = "LEGENDARY_HERO";
+            else if (level >= 40) badges[level] = "MASTER_HERO";
+            else if (level >= 30) badges[level] = "VETERAN_HERO";
+            else if (level >= 20) badges[level] = "PROFESSIONAL_HERO";
+            else if (level >= 10) badges[level] = "ADVANCED_HERO";
+            else if (level >= 5) badges[level] = "INTERMEDIATE_HERO";
+            else badges[level] = "BEGINNER_HERO";
+        }
+        return badges;
+    }
 
-        return total;
+    private static long saturatedAdd(long a, long b) {
+        long sum = a + b;
+        return sum < a ? Long.MAX_VALUE : sum;
     }
 }
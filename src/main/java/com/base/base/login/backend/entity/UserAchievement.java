@@ -12,7 +12,11 @@ import lombok.NoArgsConstructor;
  */
 @Entity
 @Table(name = "user_achievements", 
-       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "achievement_id"}))
+       uniqueConstraints = @UniqueConstraint(columnNames = {"user_id", "achievement_id"}),
+       indexes = {
+           // Últimos logros desbloqueados de cada usuario sin ordenar todo su historial
+           @Index(name = "idx_user_achievements_user_unlocked", columnList = "user_id, unlocked_at DESC, id DESC")
+       })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -20,7 +24,8 @@ import lombok.NoArgsConstructor;
 public class UserAchievement {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_achievements_seq")
+    @SequenceGenerator(name = "user_achievements_seq", sequenceName = "user_achievements_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
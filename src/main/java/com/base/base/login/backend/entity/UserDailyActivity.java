@@ -0,0 +1,56 @@
+package com.base.base.login.backend.entity;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad UserDailyActivity - Resumen diario de actividad de cada usuario
+ * Se acumula al completar rutinas para que las estadísticas por periodo lean
+ * unas pocas filas en lugar de recorrer el historial
+ */
+@Entity
+@Table(name = "user_daily_activity")
+@IdClass(UserDailyActivity.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserDailyActivity {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Id
+    @Column(name = "activity_date", nullable = false)
+    private LocalDate activityDate;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer sessions = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer points = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer exercises = 0;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer minutes = 0;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String userId;
+        private LocalDate activityDate;
+    }
+}
@@ -0,0 +1,50 @@
+package com.base.base.login.backend.entity;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad UserExerciseStat - Contador de veces que un usuario ha completado cada ejercicio
+ * Se actualiza al completar rutinas para evaluar logros sin recorrer el historial
+ */
+@Entity
+@Table(name = "user_exercise_stats")
+@IdClass(UserExerciseStat.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserExerciseStat {
+
+    @Id
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Id
+    @Column(name = "exercise_id", nullable = false)
+    private Long exerciseId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Exercise.ExerciseCategory category;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer completions = 0;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String userId;
+        private Long exerciseId;
+    }
+}
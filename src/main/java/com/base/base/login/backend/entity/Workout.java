@@ -3,6 +3,8 @@ package com.base.base.login.backend.entity;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import org.hibernate.annotations.BatchSize;
+
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -13,7 +15,11 @@ import lombok.NoArgsConstructor;
  * Entidad Workout - Rutinas de entrenamiento
  */
 @Entity
-@Table(name = "workouts")
+@Table(name = "workouts", indexes = {
+    // Historial paginado por (createdAt, id) y por (completedAt, id) de cada usuario
+    @Index(name = "idx_workouts_user_created", columnList = "user_id, created_at DESC, id DESC"),
+    @Index(name = "idx_workouts_user_status_completed", columnList = "user_id, status, completed_at DESC, id DESC")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,7 +27,8 @@ import lombok.NoArgsConstructor;
 public class Workout {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workouts_seq")
+    @SequenceGenerator(name = "workouts_seq", sequenceName = "workouts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -34,7 +41,9 @@ public class Workout {
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
-    @OneToMany(mappedBy = "workout", cascade = CascadeType.ALL, orphanRemoval = true)
+    // Sin orphanRemoval: las líneas que se quitan al editar se borran con un único DELETE en bloque
+    @OneToMany(mappedBy = "workout", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     @Builder.Default
     private List<WorkoutExercise> exercises = new ArrayList<>();
 
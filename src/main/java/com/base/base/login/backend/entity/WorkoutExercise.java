@@ -19,7 +19,8 @@ import lombok.NoArgsConstructor;
 public class WorkoutExercise {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workout_exercises_seq")
+    @SequenceGenerator(name = "workout_exercises_seq", sequenceName = "workout_exercises_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,46 @@
+package com.base.base.login.backend.entity;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.Immutable;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entidad WorkoutSession - Registro de solo inserción con cada vez que se completa una rutina
+ * Conserva las sesiones pasadas aunque la rutina se repita otro día o se elimine
+ * (por eso guarda los ids sin claves ajenas).
+ */
+@Entity
+@Immutable
+@Table(name = "workout_sessions", indexes = {
+    // Conteos por ventana de tiempo de cada usuario resueltos sólo con el índice
+    @Index(name = "idx_workout_sessions_user_completed", columnList = "user_id, completed_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class WorkoutSession {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "workout_sessions_seq")
+    @SequenceGenerator(name = "workout_sessions_seq", sequenceName = "workout_sessions_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false, updatable = false)
+    private String userId;
+
+    @Column(name = "workout_id", nullable = false, updatable = false)
+    private Long workoutId;
+
+    @Column(nullable = false, updatable = false)
+    private Integer points;
+
+    @Column(name = "completed_at", nullable = false, updatable = false)
+    private LocalDateTime completedAt;
+}
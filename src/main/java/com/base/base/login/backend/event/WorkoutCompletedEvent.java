@@ -0,0 +1,7 @@
+package com.base.base.login.backend.event;
+
+/**
+ * Evento publicado al completar una rutina; se procesa tras el commit
+ */
+public record WorkoutCompletedEvent(String keycloakId, Long workoutId) {
+}
@@ -0,0 +1,15 @@
+package com.base.base.login.backend.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.base.base.login.backend.entity.AchievementBackfillJob;
+
+@Repository
+public interface AchievementBackfillJobRepository extends JpaRepository<AchievementBackfillJob, Long> {
+    List<AchievementBackfillJob> findByStatus(AchievementBackfillJob.JobStatus status);
+    List<AchievementBackfillJob> findAllByOrderByStartedAtDesc();
+    boolean existsByAchievementIdAndStatus(Long achievementId, AchievementBackfillJob.JobStatus status);
+}
@@ -1,13 +1,16 @@
 package com.base.base.login.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.base.base.login.backend.entity.Exercise;
+import com.base.base.login.backend.repository.projection.ExerciseView;
 
 @Repository
 public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
@@ -20,4 +23,10 @@ public interface ExerciseRepository extends JpaRepository<Exercise, Long> {
     List<Exercise> findActiveByCategoryOrderByName(Exercise.ExerciseCategory category);
     
     boolean existsByName(String name);
+
+    // Ejercicios que no están en el catálogo activo (desactivados) referenciados por rutinas antiguas
+    @Query("SELECT new com.base.base.login.backend.repository.projection.ExerciseView("
+        + "e.id, e.name, e.description, e.pointsReward, e.difficulty, e.category, e.estimatedDurationMinutes, e.isActive) "
+        + "FROM Exercise e WHERE e.id IN :ids")
+    List<ExerciseView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
 }
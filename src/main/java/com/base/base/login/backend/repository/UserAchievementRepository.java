@@ -2,24 +2,53 @@ package com.base.base.login.backend.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.base.base.login.backend.entity.UserAchievement;
 import com.base.base.login.backend.entity.User;
 import com.base.base.login.backend.entity.Achievement;
+import com.base.base.login.backend.repository.projection.UserAchievementView;
 
 @Repository
-public interface UserAchievementRepository extends JpaRepository<UserAchievement, Long> {
-    List<UserAchievement> findByUserOrderByUnlockedAtDesc(User user);
+public interface UserAchievementRepository extends JpaRepository<UserAchievement, Long>, UserAchievementRepositoryCustom {
+    @Query("SELECT new com.base.base.login.backend.repository.projection.UserAchievementView("
+        + "ua.id, ua.achievement.id, ua.unlockedAt, ua.progressValue) "
+        + "FROM UserAchievement ua WHERE ua.user = :user ORDER BY ua.unlockedAt DESC")
+    List<UserAchievementView> findViewsByUser(@Param("user") User user);
+
+    // Últimos N logros: recorre idx_user_achievements_user_unlocked y para al llegar al límite
+    @Query("SELECT new com.base.base.login.backend.repository.projection.UserAchievementView("
+        + "ua.id, ua.achievement.id, ua.unlockedAt, ua.progressValue) "
+        + "FROM UserAchievement ua WHERE ua.user = :user ORDER BY ua.unlockedAt DESC, ua.id DESC")
+    List<UserAchievementView> findRecentViewsByUser(@Param("user") User user, Pageable pageable);
     
     @Query("SELECT COUNT(ua) FROM UserAchievement ua WHERE ua.user = :user")
     Long countByUser(@Param("user") User user);
     
     boolean existsByUserAndAchievement(User user, Achievement achievement);
+
+    @Query("SELECT ua.achievement.id FROM UserAchievement ua WHERE ua.user = :user")
+    Set<Long> findAchievementIdsByUser(@Param("user") User user);
     
     Optional<UserAchievement> findByUserAndAchievement(User user, Achievement achievement);
+
+    // Exportación: cursor de sólo avance con el logro ya cargado
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT ua FROM UserAchievement ua JOIN FETCH ua.achievement WHERE ua.user.keycloakId = :userId "
+        + "ORDER BY ua.unlockedAt, ua.id")
+    Stream<UserAchievement> streamByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,15 @@
+package com.base.base.login.backend.repository;
+
+import java.util.List;
+
+/**
+ * Operaciones masivas sobre los logros desbloqueados
+ */
+public interface UserAchievementRepositoryCustom {
+
+    /**
+     * Inserta el logro para los usuarios indicados en un batch, ignorando los que ya lo tienen
+     * Devuelve los usuarios para los que realmente se ha insertado.
+     */
+    List<String> insertIfAbsent(Long achievementId, List<String> userIds);
+}
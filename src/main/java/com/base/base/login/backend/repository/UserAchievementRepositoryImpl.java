@@ -0,0 +1,59 @@
+package com.base.base.login.backend.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.base.base.login.backend.config.DatabasePlatform;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación JDBC de las inserciones masivas de logros (ON CONFLICT en PostgreSQL, MERGE en H2)
+ * El id sale de la misma secuencia que usa Hibernate: cada inserción consume un valor,
+ * que Hibernate ya no reparte porque lo trata como límite de su propio bloque.
+ */
+@RequiredArgsConstructor
+public class UserAchievementRepositoryImpl implements UserAchievementRepositoryCustom {
+
+    private static final String POSTGRES_INSERT = """
+        INSERT INTO user_achievements (id, user_id, achievement_id, unlocked_at)
+        VALUES (nextval('user_achievements_seq'), ?, ?, CURRENT_TIMESTAMP)
+        ON CONFLICT (user_id, achievement_id) DO NOTHING
+        """;
+
+    private static final String H2_MERGE = """
+        MERGE INTO user_achievements t
+        USING (SELECT CAST(? AS VARCHAR(255)) AS user_id, CAST(? AS BIGINT) AS achievement_id) s
+        ON t.user_id = s.user_id AND t.achievement_id = s.achievement_id
+        WHEN NOT MATCHED THEN
+            INSERT (id, user_id, achievement_id, unlocked_at)
+            VALUES (NEXT VALUE FOR user_achievements_seq, s.user_id, s.achievement_id, CURRENT_TIMESTAMP)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Override
+    public List<String> insertIfAbsent(Long achievementId, List<String> userIds) {
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+
+        List<Object[]> rows = new ArrayList<>(userIds.size());
+        for (String userId : userIds) {
+            rows.add(new Object[] {userId, achievementId});
+        }
+
+        int[] counts = jdbcTemplate.batchUpdate(databasePlatform.isPostgres() ? POSTGRES_INSERT : H2_MERGE, rows);
+
+        List<String> inserted = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0) {
+                inserted.add(userIds.get(i));
+            }
+        }
+        return inserted;
+    }
+}
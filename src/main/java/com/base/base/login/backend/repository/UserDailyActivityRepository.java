@@ -0,0 +1,15 @@
+package com.base.base.login.backend.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.base.base.login.backend.entity.UserDailyActivity;
+
+@Repository
+public interface UserDailyActivityRepository
+        extends JpaRepository<UserDailyActivity, UserDailyActivity.Key>, UserDailyActivityRepositoryCustom {
+    List<UserDailyActivity> findByUserIdAndActivityDateBetween(String userId, LocalDate start, LocalDate end);
+}
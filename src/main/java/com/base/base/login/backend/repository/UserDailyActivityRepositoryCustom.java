@@ -0,0 +1,19 @@
+package com.base.base.login.backend.repository;
+
+import java.time.LocalDate;
+
+/**
+ * Acumulación del resumen diario de actividad
+ */
+public interface UserDailyActivityRepositoryCustom {
+
+    /**
+     * Suma una sesión completada al día indicado con un único upsert
+     */
+    void recordSession(String userId, LocalDate day, int points, int exercises, int minutes);
+
+    /**
+     * Rellena el resumen a partir del registro de sesiones (tabla vacía)
+     */
+    int seedFromSessions();
+}
@@ -0,0 +1,69 @@
+package com.base.base.login.backend.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.base.base.login.backend.config.DatabasePlatform;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación JDBC de los upserts del resumen diario (ON CONFLICT en PostgreSQL, MERGE en H2)
+ */
+@RequiredArgsConstructor
+public class UserDailyActivityRepositoryImpl implements UserDailyActivityRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT = """
+        INSERT INTO user_daily_activity (user_id, activity_date, sessions, points, exercises, minutes)
+        VALUES (?, ?, 1, ?, ?, ?)
+        ON CONFLICT (user_id, activity_date) DO UPDATE
+        SET sessions = user_daily_activity.sessions + 1,
+            points = user_daily_activity.points + EXCLUDED.points,
+            exercises = user_daily_activity.exercises + EXCLUDED.exercises,
+            minutes = user_daily_activity.minutes + EXCLUDED.minutes
+        """;
+
+    private static final String H2_MERGE = """
+        MERGE INTO user_daily_activity t
+        USING (SELECT CAST(? AS VARCHAR(255)) AS user_id, CAST(? AS DATE) AS activity_date,
+                      CAST(? AS INTEGER) AS points, CAST(? AS INTEGER) AS exercises,
+                      CAST(? AS INTEGER) AS minutes) s
+        ON t.user_id = s.user_id AND t.activity_date = s.activity_date
+        WHEN MATCHED THEN
+            UPDATE SET sessions = t.sessions + 1, points = t.points + s.points,
+                       exercises = t.exercises + s.exercises, minutes = t.minutes + s.minutes
+        WHEN NOT MATCHED THEN
+            INSERT (user_id, activity_date, sessions, points, exercises, minutes)
+            VALUES (s.user_id, s.activity_date, 1, s.points, s.exercises, s.minutes)
+        """;
+
+    // Ejercicios y minutos salen de las líneas actuales de cada rutina
+    private static final String SEED_FROM_SESSIONS = """
+        INSERT INTO user_daily_activity (user_id, activity_date, sessions, points, exercises, minutes)
+        SELECT s.user_id, CAST(s.completed_at AS DATE), COUNT(*), SUM(s.points),
+               SUM(COALESCE(l.exercises, 0)), SUM(COALESCE(l.minutes, 0))
+        FROM workout_sessions s
+        LEFT JOIN (
+            SELECT we.workout_id, COUNT(*) AS exercises, SUM(COALESCE(e.estimated_duration_minutes, 0)) AS minutes
+            FROM workout_exercises we
+            JOIN exercises e ON e.id = we.exercise_id
+            GROUP BY we.workout_id
+        ) l ON l.workout_id = s.workout_id
+        GROUP BY s.user_id, CAST(s.completed_at AS DATE)
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Override
+    public void recordSession(String userId, LocalDate day, int points, int exercises, int minutes) {
+        jdbcTemplate.update(databasePlatform.isPostgres() ? POSTGRES_UPSERT : H2_MERGE,
+            userId, day, points, exercises, minutes);
+    }
+
+    @Override
+    public int seedFromSessions() {
+        return jdbcTemplate.update(SEED_FROM_SESSIONS);
+    }
+}
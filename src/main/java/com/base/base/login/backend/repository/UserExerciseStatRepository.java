@@ -0,0 +1,17 @@
+package com.base.base.login.backend.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.base.base.login.backend.entity.UserExerciseStat;
+
+@Repository
+public interface UserExerciseStatRepository
+        extends JpaRepository<UserExerciseStat, UserExerciseStat.Key>, UserExerciseStatRepositoryCustom {
+    List<UserExerciseStat> findByUserId(String userId);
+    List<UserExerciseStat> findByUserIdIn(Collection<String> userIds);
+    long countByUserId(String userId);
+}
@@ -0,0 +1,21 @@
+package com.base.base.login.backend.repository;
+
+import java.util.Map;
+
+import com.base.base.login.backend.entity.Exercise;
+
+/**
+ * Operaciones masivas sobre los contadores de ejercicios por usuario
+ */
+public interface UserExerciseStatRepositoryCustom {
+
+    /**
+     * Suma una compleción a cada ejercicio indicado en un único batch de upserts
+     */
+    void incrementCompletions(String userId, Map<Long, Exercise.ExerciseCategory> exercises);
+
+    /**
+     * Rellena los contadores a partir de las rutinas completadas (tabla vacía)
+     */
+    int seedFromCompletedWorkouts();
+}
@@ -0,0 +1,70 @@
+package com.base.base.login.backend.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.base.base.login.backend.config.DatabasePlatform;
+import com.base.base.login.backend.entity.Exercise;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación JDBC de los upserts de contadores (ON CONFLICT en PostgreSQL, MERGE en H2)
+ */
+@RequiredArgsConstructor
+public class UserExerciseStatRepositoryImpl implements UserExerciseStatRepositoryCustom {
+
+    private static final String POSTGRES_UPSERT = """
+        INSERT INTO user_exercise_stats (user_id, exercise_id, category, completions, updated_at)
+        VALUES (?, ?, ?, 1, CURRENT_TIMESTAMP)
+        ON CONFLICT (user_id, exercise_id) DO UPDATE
+        SET completions = user_exercise_stats.completions + 1,
+            category = EXCLUDED.category,
+            updated_at = EXCLUDED.updated_at
+        """;
+
+    private static final String H2_MERGE = """
+        MERGE INTO user_exercise_stats t
+        USING (SELECT CAST(? AS VARCHAR(255)) AS user_id, CAST(? AS BIGINT) AS exercise_id,
+                      CAST(? AS VARCHAR(255)) AS category) s
+        ON t.user_id = s.user_id AND t.exercise_id = s.exercise_id
+        WHEN MATCHED THEN
+            UPDATE SET completions = t.completions + 1, category = s.category, updated_at = CURRENT_TIMESTAMP
+        WHEN NOT MATCHED THEN
+            INSERT (user_id, exercise_id, category, completions, updated_at)
+            VALUES (s.user_id, s.exercise_id, s.category, 1, CURRENT_TIMESTAMP)
+        """;
+
+    private static final String SEED_FROM_HISTORY = """
+        INSERT INTO user_exercise_stats (user_id, exercise_id, category, completions, updated_at)
+        SELECT w.user_id, we.exercise_id, e.category, COUNT(DISTINCT w.id), CURRENT_TIMESTAMP
+        FROM workouts w
+        JOIN workout_exercises we ON we.workout_id = w.id
+        JOIN exercises e ON e.id = we.exercise_id
+        WHERE w.status = 'COMPLETED'
+        GROUP BY w.user_id, we.exercise_id, e.category
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Override
+    public void incrementCompletions(String userId, Map<Long, Exercise.ExerciseCategory> exercises) {
+        if (exercises.isEmpty()) {
+            return;
+        }
+
+        List<Object[]> rows = new ArrayList<>(exercises.size());
+        exercises.forEach((exerciseId, category) -> rows.add(new Object[] {userId, exerciseId, category.name()}));
+
+        jdbcTemplate.batchUpdate(databasePlatform.isPostgres() ? POSTGRES_UPSERT : H2_MERGE, rows);
+    }
+
+    @Override
+    public int seedFromCompletedWorkouts() {
+        return jdbcTemplate.update(SEED_FROM_HISTORY);
+    }
+}
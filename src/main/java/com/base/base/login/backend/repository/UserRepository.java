@@ -5,13 +5,16 @@ import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.base.base.login.backend.entity.User;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, String> {
+public interface UserRepository extends JpaRepository<User, String>, UserRepositoryCustom {
     Optional<User> findByKeycloakId(String keycloakId);
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
@@ -25,5 +28,47 @@ public interface UserRepository extends JpaRepository<User, String> {
     
     // Usuarios por nivel
     List<User> findByCurrentLevelOrderByTotalPointsDesc(Integer level);
+
+    // Recorrido por páginas ordenadas por keycloakId (keyset) para procesos masivos
+    List<User> findByKeycloakIdGreaterThanOrderByKeycloakIdAsc(String keycloakId, Pageable pageable);
+
+    // Alta atómica en el primer login (PostgreSQL): no falla si otra petición ya lo insertó
+    @Modifying
+    @Transactional
+    @Query(value = """
+        INSERT INTO users (keycloak_id, username, email, first_name, last_name,
+                           total_points, current_level, workouts_completed, current_streak, longest_streak,
+                           is_active, created_at, updated_at)
+        VALUES (:keycloakId, :username, :email, :firstName, :lastName, 0, 1, 0, 0, 0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        ON CONFLICT (keycloak_id) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfAbsent(
+        @Param("keycloakId") String keycloakId,
+        @Param("username") String username,
+        @Param("email") String email,
+        @Param("firstName") String firstName,
+        @Param("lastName") String lastName
+    );
+
+    // Alternativa compatible con H2 mediante MERGE estándar
+    @Modifying
+    @Transactional
+    @Query(value = """
+        MERGE INTO users u
+        USING (SELECT CAST(:keycloakId AS VARCHAR(255)) AS keycloak_id) s
+        ON u.keycloak_id = s.keycloak_id
+        WHEN NOT MATCHED THEN
+            INSERT (keycloak_id, username, email, first_name, last_name,
+                    total_points, current_level, workouts_completed, current_streak, longest_streak,
+                    is_active, created_at, updated_at)
+            VALUES (s.keycloak_id, :username, :email, :firstName, :lastName, 0, 1, 0, 0, 0, true, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)
+        """, nativeQuery = true)
+    int mergeIfAbsent(
+        @Param("keycloakId") String keycloakId,
+        @Param("username") String username,
+        @Param("email") String email,
+        @Param("firstName") String firstName,
+        @Param("lastName") String lastName
+    );
 }
 
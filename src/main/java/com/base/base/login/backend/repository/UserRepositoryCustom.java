@@ -0,0 +1,36 @@
+package com.base.base.login.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+import com.base.base.login.backend.repository.projection.UserCounters;
+
+/**
+ * Actualizaciones de contadores de usuario resueltas en SQL
+ * Cada operación es una sentencia atómica sobre la fila, sin leer-modificar-escribir la entidad,
+ * de modo que dos peticiones simultáneas del mismo usuario no se pisan.
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * Suma puntos a varios usuarios con una sola sentencia y recalcula su nivel
+     */
+    void addPointsToUsers(Collection<String> keycloakIds, int points);
+
+    /**
+     * Suma puntos a un usuario, recalcula su nivel y devuelve los contadores resultantes
+     */
+    UserCounters addPoints(String keycloakId, int points);
+
+    /**
+     * Registra una rutina completada (puntos, contador, rachas y nivel) y devuelve los contadores resultantes
+     */
+    UserCounters recordWorkoutCompletion(String keycloakId, int points, LocalDateTime completedAt);
+
+    /**
+     * Escribe unas rachas recalculadas sólo si el último entrenamiento sigue siendo el leído;
+     * devuelve false si entretanto se completó otra rutina (cuya actualización atómica prevalece)
+     */
+    boolean updateStreaksIfUnchanged(String keycloakId, int currentStreak, int longestStreak,
+                                     LocalDateTime seenLastWorkoutDate);
+}
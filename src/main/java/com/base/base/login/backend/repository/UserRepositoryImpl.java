@@ -0,0 +1,163 @@
+package com.base.base.login.backend.repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import com.base.base.login.backend.config.DatabasePlatform;
+import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.repository.projection.UserCounters;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación JDBC de las actualizaciones de contadores de usuario
+ * PostgreSQL devuelve la fila actualizada con UPDATE ... RETURNING; H2 con SELECT ... FROM FINAL TABLE.
+ */
+@RequiredArgsConstructor
+public class UserRepositoryImpl implements UserRepositoryCustom {
+
+    private static final String COUNTER_COLUMNS =
+        "total_points, current_level, workouts_completed, current_streak, longest_streak, last_workout_date";
+
+    // Racha tras entrenar el día :day, partiendo del último entrenamiento registrado en la fila
+    // (la guardada puede haber caducado: al leerla se usa User.effectiveStreak)
+    private static final String NEXT_STREAK = """
+        CASE
+            WHEN CAST(last_workout_date AS DATE) = :day THEN GREATEST(COALESCE(current_streak, 0), 1)
+            WHEN CAST(last_workout_date AS DATE) = :previousDay THEN COALESCE(current_streak, 0) + 1
+            ELSE 1
+        END""";
+
+    private static final String ADD_POINTS = """
+        UPDATE users
+        SET total_points = total_points + :points,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE keycloak_id = :keycloakId""";
+
+    private static final String RECORD_COMPLETION = """
+        UPDATE users
+        SET total_points = total_points + :points,
+            workouts_completed = workouts_completed + 1,
+            current_streak = %s,
+            longest_streak = GREATEST(COALESCE(longest_streak, 0), %s),
+            last_workout_date = :completedAt,
+            updated_at = CURRENT_TIMESTAMP
+        WHERE keycloak_id = :keycloakId""".formatted(NEXT_STREAK, NEXT_STREAK);
+
+    private static final String UPDATE_STREAKS_IF_UNCHANGED = """
+        UPDATE users
+        SET current_streak = :currentStreak,
+            longest_streak = :longestStreak
+        WHERE keycloak_id = :keycloakId
+          AND last_workout_date IS NOT DISTINCT FROM :seenLastWorkoutDate""";
+
+    private static final String RAISE_LEVEL =
+        "UPDATE users SET current_level = GREATEST(current_level, ?) WHERE keycloak_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Override
+    public void addPointsToUsers(Collection<String> keycloakIds, int points) {
+        if (keycloakIds.isEmpty() || points <= 0) {
+            return;
+        }
+
+        Map<String, Object> params = Map.of("ids", keycloakIds, "points", points);
+        namedJdbcTemplate.update(
+            "UPDATE users SET total_points = total_points + :points, updated_at = CURRENT_TIMESTAMP "
+                + "WHERE keycloak_id IN (:ids)", params);
+
+        // El nivel se recalcula con la curva de User sobre los totales resultantes; nunca baja
+        List<Object[]> levelUpdates = namedJdbcTemplate.query(
+            "SELECT keycloak_id, total_points, current_level FROM users WHERE keycloak_id IN (:ids)", params,
+            (rs, rowNum) -> {
+                int level = User.levelForPoints(rs.getLong("total_points"));
+                return level > rs.getInt("current_level")
+                    ? new Object[] {level, rs.getString("keycloak_id")}
+                    : null;
+            }).stream()
+            .filter(row -> row != null)
+            .toList();
+
+        if (!levelUpdates.isEmpty()) {
+            jdbcTemplate.batchUpdate(RAISE_LEVEL, levelUpdates);
+        }
+    }
+
+    @Override
+    public UserCounters addPoints(String keycloakId, int points) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("keycloakId", keycloakId)
+            .addValue("points", points);
+        return raiseLevel(keycloakId, updateReturning(ADD_POINTS, params));
+    }
+
+    @Override
+    public UserCounters recordWorkoutCompletion(String keycloakId, int points, LocalDateTime completedAt) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("keycloakId", keycloakId)
+            .addValue("points", points)
+            .addValue("completedAt", completedAt)
+            .addValue("day", completedAt.toLocalDate())
+            .addValue("previousDay", completedAt.toLocalDate().minusDays(1));
+        return raiseLevel(keycloakId, updateReturning(RECORD_COMPLETION, params));
+    }
+
+    @Override
+    public boolean updateStreaksIfUnchanged(String keycloakId, int currentStreak, int longestStreak,
+                                            LocalDateTime seenLastWorkoutDate) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("keycloakId", keycloakId)
+            .addValue("currentStreak", currentStreak)
+            .addValue("longestStreak", longestStreak)
+            .addValue("seenLastWorkoutDate", seenLastWorkoutDate, Types.TIMESTAMP);
+        return namedJdbcTemplate.update(UPDATE_STREAKS_IF_UNCHANGED, params) > 0;
+    }
+
+    private UserCounters updateReturning(String update, MapSqlParameterSource params) {
+        String sql = databasePlatform.isPostgres()
+            ? update + " RETURNING " + COUNTER_COLUMNS
+            : "SELECT " + COUNTER_COLUMNS + " FROM FINAL TABLE (" + update + ")";
+        List<UserCounters> rows = namedJdbcTemplate.query(sql, params, UserRepositoryImpl::mapCounters);
+        if (rows.isEmpty()) {
+            throw new RuntimeException("Usuario no encontrado");
+        }
+        return rows.get(0);
+    }
+
+    /**
+     * Sube el nivel si el total devuelto lo supera; GREATEST evita bajarlo si otra petición ya lo subió más
+     */
+    private UserCounters raiseLevel(String keycloakId, UserCounters counters) {
+        int level = User.levelForPoints(counters.totalPoints());
+        if (level <= counters.currentLevel()) {
+            return counters;
+        }
+        jdbcTemplate.update(RAISE_LEVEL, level, keycloakId);
+        return new UserCounters(counters.totalPoints(), level, counters.workoutsCompleted(),
+            counters.currentStreak(), counters.longestStreak(), counters.lastWorkoutDate());
+    }
+
+    private static UserCounters mapCounters(ResultSet rs, int rowNum) throws SQLException {
+        Timestamp lastWorkout = rs.getTimestamp("last_workout_date");
+        return new UserCounters(
+            rs.getInt("total_points"),
+            rs.getInt("current_level"),
+            rs.getInt("workouts_completed"),
+            rs.getInt("current_streak"),
+            rs.getInt("longest_streak"),
+            lastWorkout != null ? lastWorkout.toLocalDateTime() : null);
+    }
+}
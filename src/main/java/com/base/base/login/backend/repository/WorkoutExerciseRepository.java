@@ -1,20 +1,59 @@
 package com.base.base.login.backend.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.base.base.login.backend.entity.WorkoutExercise;
 import com.base.base.login.backend.entity.Workout;
+import com.base.base.login.backend.repository.projection.WorkoutLineView;
 
 @Repository
 public interface WorkoutExerciseRepository extends JpaRepository<WorkoutExercise, Long> {
+
+    // Proyección de sólo lectura; las líneas salen agrupadas por rutina y en su orden
+    String LINE_VIEW = "SELECT new com.base.base.login.backend.repository.projection.WorkoutLineView("
+        + "we.id, we.workout.id, we.exercise.id, we.sets, we.reps, we.restSeconds, we.orderIndex, we.notes, we.isCompleted) ";
+    String LINE_ORDER = " ORDER BY we.workout.id, we.orderIndex, we.id";
+
     List<WorkoutExercise> findByWorkoutOrderByOrderIndexAsc(Workout workout);
     void deleteByWorkout(Workout workout);
 
+    @Modifying
+    @Query("DELETE FROM WorkoutExercise we WHERE we.workout = :workout AND we.id IN :ids")
+    int deleteByWorkoutAndIdIn(@Param("workout") Workout workout, @Param("ids") Collection<Long> ids);
+
     @Query("SELECT COUNT(DISTINCT we.exercise.id) FROM WorkoutExercise we WHERE we.workout.user = :user AND we.workout.status = 'COMPLETED'")
     Long countDistinctCompletedExercisesByUser(@Param("user") com.base.base.login.backend.entity.User user);
+
+    @Query(LINE_VIEW + "FROM WorkoutExercise we WHERE we.workout.user = :user" + LINE_ORDER)
+    List<WorkoutLineView> findViewsByUser(@Param("user") com.base.base.login.backend.entity.User user);
+
+    @Query(LINE_VIEW + "FROM WorkoutExercise we WHERE we.workout.user = :user AND we.workout.status = 'COMPLETED'" + LINE_ORDER)
+    List<WorkoutLineView> findCompletedViewsByUser(@Param("user") com.base.base.login.backend.entity.User user);
+
+    @Query(LINE_VIEW + "FROM WorkoutExercise we WHERE we.workout.user = :user AND we.workout.favorite = true" + LINE_ORDER)
+    List<WorkoutLineView> findFavoriteViewsByUser(@Param("user") com.base.base.login.backend.entity.User user);
+
+    @Query(LINE_VIEW + "FROM WorkoutExercise we WHERE we.workout.id IN :workoutIds" + LINE_ORDER)
+    List<WorkoutLineView> findViewsByWorkoutIds(@Param("workoutIds") Collection<Long> workoutIds);
+
+    // Exportación: líneas de todas las rutinas del usuario en el mismo orden que streamByUserId
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT we FROM WorkoutExercise we JOIN FETCH we.exercise "
+        + "WHERE we.workout.user.keycloakId = :userId ORDER BY we.workout.id, we.orderIndex, we.id")
+    Stream<WorkoutExercise> streamByUserId(@Param("userId") String userId);
 }
@@ -2,37 +2,93 @@ package com.base.base.login.backend.repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.base.base.login.backend.entity.Workout;
 import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.repository.projection.WorkoutListVersion;
+import com.base.base.login.backend.repository.projection.WorkoutView;
 
 @Repository
 public interface WorkoutRepository extends JpaRepository<Workout, Long> {
-    List<Workout> findByUserOrderByCreatedAtDesc(User user);
+
+    // Proyección de sólo lectura con las columnas del DTO (sin entidades en el contexto de persistencia)
+    String WORKOUT_VIEW = "SELECT new com.base.base.login.backend.repository.projection.WorkoutView("
+        + "w.id, w.name, w.description, w.status, w.totalPoints, w.completedAt, w.createdAt, w.favorite) ";
+
     List<Workout> findByUserAndStatusOrderByCreatedAtDesc(User user, Workout.WorkoutStatus status);
     
-    @Query("SELECT w FROM Workout w WHERE w.user = :user AND w.status = 'COMPLETED' ORDER BY w.completedAt DESC")
-    List<Workout> findCompletedWorkoutsByUser(@Param("user") User user);
-    
-    @Query("SELECT COUNT(w) FROM Workout w WHERE w.user = :user AND w.status = 'COMPLETED'")
-    Long countCompletedWorkoutsByUser(@Param("user") User user);
-    
-    @Query("SELECT w FROM Workout w WHERE w.user = :user AND w.completedAt BETWEEN :start AND :end")
-    List<Workout> findWorkoutsByUserAndDateRange(
-        @Param("user") User user, 
-        @Param("start") LocalDateTime start, 
-        @Param("end") LocalDateTime end
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user ORDER BY w.createdAt DESC")
+    List<WorkoutView> findViewsByUser(@Param("user") User user);
+
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user AND w.status = 'COMPLETED' ORDER BY w.completedAt DESC")
+    List<WorkoutView> findCompletedViewsByUser(@Param("user") User user);
+
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user AND w.favorite = true ORDER BY w.updatedAt DESC")
+    List<WorkoutView> findFavoriteViewsByUser(@Param("user") User user);
+
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user AND w.favorite = true "
+        + "ORDER BY w.updatedAt DESC, w.id DESC")
+    List<WorkoutView> findFavoriteViewsByUser(@Param("user") User user, Pageable pageable);
+
+    // Paginación keyset: la primera página no lleva cursor; las siguientes parten de (fecha, id) de la última
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user ORDER BY w.createdAt DESC, w.id DESC")
+    List<WorkoutView> findFirstPageByUser(@Param("user") User user, Pageable pageable);
+
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user "
+        + "AND (w.createdAt < :createdAt OR (w.createdAt = :createdAt AND w.id < :id)) "
+        + "ORDER BY w.createdAt DESC, w.id DESC")
+    List<WorkoutView> findPageByUserAfter(
+        @Param("user") User user,
+        @Param("createdAt") LocalDateTime createdAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user AND w.status = 'COMPLETED' "
+        + "ORDER BY w.completedAt DESC, w.id DESC")
+    List<WorkoutView> findFirstCompletedPageByUser(@Param("user") User user, Pageable pageable);
+
+    @Query(WORKOUT_VIEW + "FROM Workout w WHERE w.user = :user AND w.status = 'COMPLETED' "
+        + "AND (w.completedAt < :completedAt OR (w.completedAt = :completedAt AND w.id < :id)) "
+        + "ORDER BY w.completedAt DESC, w.id DESC")
+    List<WorkoutView> findCompletedPageByUserAfter(
+        @Param("user") User user,
+        @Param("completedAt") LocalDateTime completedAt,
+        @Param("id") Long id,
+        Pageable pageable
+    );
+
+    // Reclama el completado del día en una sola sentencia: de dos peticiones simultáneas sólo una actualiza la fila
+    @Modifying
+    @Query("UPDATE Workout w SET w.status = :completed, w.completedAt = :now, w.updatedAt = :now "
+        + "WHERE w.id = :id AND (w.status <> :completed OR w.completedAt IS NULL OR w.completedAt < :startOfToday)")
+    int claimCompletion(
+        @Param("id") Long id,
+        @Param("completed") Workout.WorkoutStatus completed,
+        @Param("now") LocalDateTime now,
+        @Param("startOfToday") LocalDateTime startOfToday
     );
-    
-    @Query("SELECT SUM(w.totalPoints) FROM Workout w WHERE w.user = :user AND w.status = 'COMPLETED'")
-    Integer getTotalPointsByUser(@Param("user") User user);
 
-    List<Workout> findByUserAndFavoriteTrueOrderByUpdatedAtDesc(User user);
+    @Query("SELECT COUNT(w) AS count, MAX(w.updatedAt) AS lastUpdatedAt FROM Workout w WHERE w.user = :user")
+    WorkoutListVersion findListVersionByUser(@Param("user") User user);
 
-    List<Workout> findTop5ByUserAndFavoriteTrueOrderByUpdatedAtDesc(User user);
+    // Exportación: cursor de sólo avance ordenado por id, sin cargar las líneas
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT w FROM Workout w WHERE w.user.keycloakId = :userId ORDER BY w.id")
+    Stream<Workout> streamByUserId(@Param("userId") String userId);
 }
@@ -0,0 +1,18 @@
+package com.base.base.login.backend.repository;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.base.base.login.backend.entity.WorkoutSession;
+
+@Repository
+public interface WorkoutSessionRepository extends JpaRepository<WorkoutSession, Long>, WorkoutSessionRepositoryCustom {
+
+    @Query("SELECT s.completedAt FROM WorkoutSession s WHERE s.userId = :userId ORDER BY s.completedAt")
+    Stream<LocalDateTime> streamCompletionTimesByUserId(@Param("userId") String userId);
+}
@@ -0,0 +1,12 @@
+package com.base.base.login.backend.repository;
+
+/**
+ * Operaciones masivas sobre el registro de sesiones
+ */
+public interface WorkoutSessionRepositoryCustom {
+
+    /**
+     * Rellena el registro con la última sesión conocida de cada rutina completada (tabla vacía)
+     */
+    int seedFromCompletedWorkouts();
+}
@@ -0,0 +1,32 @@
+package com.base.base.login.backend.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.base.base.login.backend.config.DatabasePlatform;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementación JDBC del relleno inicial de sesiones (nextval en PostgreSQL, NEXT VALUE FOR en H2)
+ */
+@RequiredArgsConstructor
+public class WorkoutSessionRepositoryImpl implements WorkoutSessionRepositoryCustom {
+
+    private static final String SEED_FROM_HISTORY = """
+        INSERT INTO workout_sessions (id, user_id, workout_id, points, completed_at)
+        SELECT %s, w.user_id, w.id, COALESCE(w.total_points, 0), w.completed_at
+        FROM workouts w
+        WHERE w.status = 'COMPLETED' AND w.completed_at IS NOT NULL
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DatabasePlatform databasePlatform;
+
+    @Override
+    public int seedFromCompletedWorkouts() {
+        String nextId = databasePlatform.isPostgres()
+            ? "nextval('workout_sessions_seq')"
+            : "NEXT VALUE FOR workout_sessions_seq";
+        return jdbcTemplate.update(SEED_FROM_HISTORY.formatted(nextId));
+    }
+}
@@ -0,0 +1,17 @@
+package com.base.base.login.backend.repository.projection;
+
+import com.base.base.login.backend.entity.Exercise;
+
+/**
+ * Columnas de un ejercicio necesarias para su DTO, sin hidratar la entidad
+ */
+public record ExerciseView(
+        Long id,
+        String name,
+        String description,
+        Integer pointsReward,
+        Exercise.ExerciseDifficulty difficulty,
+        Exercise.ExerciseCategory category,
+        Integer estimatedDurationMinutes,
+        Boolean isActive) {
+}
@@ -0,0 +1,13 @@
+package com.base.base.login.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Columnas de un logro desbloqueado; el logro se resuelve por id desde el catálogo
+ */
+public record UserAchievementView(
+        Long id,
+        Long achievementId,
+        LocalDateTime unlockedAt,
+        Integer progressValue) {
+}
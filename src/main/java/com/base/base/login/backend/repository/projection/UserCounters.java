@@ -0,0 +1,29 @@
+package com.base.base.login.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+import com.base.base.login.backend.entity.User;
+
+/**
+ * Contadores de un usuario tal como quedan tras una actualización atómica en SQL
+ */
+public record UserCounters(
+        int totalPoints,
+        int currentLevel,
+        int workoutsCompleted,
+        int currentStreak,
+        int longestStreak,
+        LocalDateTime lastWorkoutDate) {
+
+    /**
+     * Copia los contadores a un usuario en memoria (no gestionado) para seguir trabajando con él
+     */
+    public void applyTo(User user) {
+        user.setTotalPoints(totalPoints);
+        user.setCurrentLevel(currentLevel);
+        user.setWorkoutsCompleted(workoutsCompleted);
+        user.setCurrentStreak(currentStreak);
+        user.setLongestStreak(longestStreak);
+        user.setLastWorkoutDate(lastWorkoutDate);
+    }
+}
@@ -0,0 +1,16 @@
+package com.base.base.login.backend.repository.projection;
+
+/**
+ * Columnas de una línea de rutina; el ejercicio se resuelve por id desde el catálogo
+ */
+public record WorkoutLineView(
+        Long id,
+        Long workoutId,
+        Long exerciseId,
+        Integer sets,
+        Integer reps,
+        Integer restSeconds,
+        Integer orderIndex,
+        String notes,
+        Boolean isCompleted) {
+}
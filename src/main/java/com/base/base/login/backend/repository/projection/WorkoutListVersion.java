@@ -0,0 +1,11 @@
+package com.base.base.login.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Número de rutinas de un usuario y última modificación, para calcular el ETag de su listado
+ */
+public interface WorkoutListVersion {
+    long getCount();
+    LocalDateTime getLastUpdatedAt();
+}
@@ -0,0 +1,19 @@
+package com.base.base.login.backend.repository.projection;
+
+import java.time.LocalDateTime;
+
+import com.base.base.login.backend.entity.Workout;
+
+/**
+ * Columnas de una rutina necesarias para su DTO, sin hidratar la entidad
+ */
+public record WorkoutView(
+        Long id,
+        String name,
+        String description,
+        Workout.WorkoutStatus status,
+        Integer totalPoints,
+        LocalDateTime completedAt,
+        LocalDateTime createdAt,
+        boolean favorite) {
+}
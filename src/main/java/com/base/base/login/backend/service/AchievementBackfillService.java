@@ -0,0 +1,221 @@
+package com.base.base.login.backend.service;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.base.base.login.backend.cache.DashboardCache;
+import com.base.base.login.backend.cache.TransactionHooks;
+import com.base.base.login.backend.cache.UnlockedAchievementCache;
+import com.base.base.login.backend.cache.UserCache;
+import com.base.base.login.backend.dto.BackgroundJobDTO;
+import com.base.base.login.backend.entity.Achievement;
+import com.base.base.login.backend.entity.AchievementBackfillJob;
+import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.entity.UserExerciseStat;
+import com.base.base.login.backend.repository.AchievementBackfillJobRepository;
+import com.base.base.login.backend.repository.AchievementRepository;
+import com.base.base.login.backend.repository.UserAchievementRepository;
+import com.base.base.login.backend.repository.UserExerciseStatRepository;
+import com.base.base.login.backend.repository.UserRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Asigna retroactivamente un logro a los usuarios que ya lo cumplen
+ * Recorre los usuarios por páginas (keyset sobre keycloakId); cada página se evalúa en
+ * paralelo, se inserta en batch y se confirma junto con el cursor del job, de modo que
+ * tras un reinicio el job continúa desde la última página confirmada.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AchievementBackfillService {
+
+    private static final String JOB_NAME = "achievement-backfill";
+    private static final int PAGE_SIZE = 500;
+
+    private final AchievementBackfillJobRepository jobRepository;
+    private final AchievementRepository achievementRepository;
+    private final UserRepository userRepository;
+    private final UserAchievementRepository userAchievementRepository;
+    private final UserExerciseStatRepository userExerciseStatRepository;
+    private final AchievementRuleEngine ruleEngine;
+    private final UserCache userCache;
+    private final UnlockedAchievementCache unlockedAchievementCache;
+    private final DashboardCache dashboardCache;
+    private final AchievementEvaluationWorker evaluationWorker;
+    private final TransactionTemplate transactionTemplate;
+
+    // Jobs que se están ejecutando en esta instancia
+    private final Set<Long> runningJobs = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Crea un job para el logro y lo lanza en un hilo virtual
+     */
+    public BackgroundJobDTO start(Long achievementId) {
+        AchievementBackfillJob job = transactionTemplate.execute(tx -> {
+            Achievement achievement = achievementRepository.findById(achievementId)
+                .orElseThrow(() -> new RuntimeException("Logro no encontrado con id: " + achievementId));
+            if (!Boolean.TRUE.equals(achievement.getIsActive())) {
+                throw new RuntimeException("El logro no está activo");
+            }
+            if (jobRepository.existsByAchievementIdAndStatus(achievementId, AchievementBackfillJob.JobStatus.RUNNING)) {
+                throw new RuntimeException("Ya hay una asignación en curso para este logro");
+            }
+            return jobRepository.save(AchievementBackfillJob.builder()
+                .achievementId(achievementId)
+                .build());
+        });
+
+        launch(job.getId());
+        log.info("Asignación retroactiva iniciada para el logro {} (job {})", achievementId, job.getId());
+        return toDTO(job);
+    }
+
+    /**
+     * Reanuda los jobs que quedaron en curso al parar la aplicación
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePendingJobs() {
+        for (AchievementBackfillJob job : jobRepository.findByStatus(AchievementBackfillJob.JobStatus.RUNNING)) {
+            log.info("Reanudando asignación retroactiva {} desde el usuario {}", job.getId(), job.getLastUserId());
+            launch(job.getId());
+        }
+    }
+
+    public List<BackgroundJobDTO> getJobs() {
+        return jobRepository.findAllByOrderByStartedAtDesc().stream()
+            .map(this::toDTO)
+            .toList();
+    }
+
+    public BackgroundJobDTO getJob(Long jobId) {
+        return jobRepository.findById(jobId)
+            .map(this::toDTO)
+            .orElseThrow(() -> new RuntimeException("Job no encontrado con id: " + jobId));
+    }
+
+    private void launch(Long jobId) {
+        if (runningJobs.add(jobId)) {
+            Thread.ofVirtual().name(JOB_NAME + "-" + jobId).start(() -> run(jobId));
+        }
+    }
+
+    private void run(Long jobId) {
+        try {
+            boolean more = true;
+            while (more) {
+                more = Boolean.TRUE.equals(transactionTemplate.execute(tx -> processPage(jobId)));
+            }
+        } catch (RuntimeException e) {
+            log.error("Error en la asignación retroactiva {}", jobId, e);
+            transactionTemplate.executeWithoutResult(tx -> jobRepository.findById(jobId).ifPresent(job -> {
+                job.setStatus(AchievementBackfillJob.JobStatus.FAILED);
+                job.setError(e.getMessage());
+                job.setFinishedAt(LocalDateTime.now());
+            }));
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    /**
+     * Procesa la página siguiente al cursor del job; devuelve false cuando ya no quedan usuarios
+     */
+    private boolean processPage(Long jobId) {
+        AchievementBackfillJob job = jobRepository.findById(jobId)
+            .orElseThrow(() -> new RuntimeException("Job no encontrado con id: " + jobId));
+        if (job.getStatus() != AchievementBackfillJob.JobStatus.RUNNING) {
+            return false;
+        }
+        Achievement achievement = achievementRepository.findById(job.getAchievementId())
+            .orElseThrow(() -> new RuntimeException("Logro no encontrado con id: " + job.getAchievementId()));
+
+        String after = job.getLastUserId() != null ? job.getLastUserId() : "";
+        List<User> users = userRepository.findByKeycloakIdGreaterThanOrderByKeycloakIdAsc(after, PageRequest.of(0, PAGE_SIZE));
+        if (users.isEmpty()) {
+            finish(job);
+            return false;
+        }
+
+        Map<String, Map<Long, Integer>> completions = AchievementRuleEngine.needsExerciseStats(achievement.getType())
+            ? loadExerciseCompletions(users)
+            : Map.of();
+
+        // La evaluación es pura (sin acceso a BD), así que se reparte entre los núcleos disponibles
+        List<String> qualifying = users.parallelStream()
+            .filter(user -> ruleEngine.qualifies(achievement, user,
+                completions.getOrDefault(user.getKeycloakId(), Map.of())))
+            .map(User::getKeycloakId)
+            .toList();
+
+        List<String> unlocked = userAchievementRepository.insertIfAbsent(achievement.getId(), qualifying);
+        if (achievement.getPointsReward() != null) {
+            userRepository.addPointsToUsers(unlocked, achievement.getPointsReward());
+        }
+
+        for (String keycloakId : unlocked) {
+            userCache.invalidate(keycloakId);
+            unlockedAchievementCache.invalidate(keycloakId);
+            dashboardCache.invalidate(keycloakId);
+            // Los puntos recibidos pueden desbloquear a su vez otros logros
+            TransactionHooks.afterCommit(() -> evaluationWorker.schedule(keycloakId));
+        }
+
+        job.setLastUserId(users.get(users.size() - 1).getKeycloakId());
+        job.setProcessedUsers(job.getProcessedUsers() + users.size());
+        job.setUnlockedUsers(job.getUnlockedUsers() + unlocked.size());
+
+        if (users.size() < PAGE_SIZE) {
+            finish(job);
+            return false;
+        }
+        return true;
+    }
+
+    private void finish(AchievementBackfillJob job) {
+        job.setStatus(AchievementBackfillJob.JobStatus.COMPLETED);
+        job.setFinishedAt(LocalDateTime.now());
+        log.info("Asignación retroactiva {} completada: {} usuarios procesados, {} logros asignados",
+            job.getId(), job.getProcessedUsers(), job.getUnlockedUsers());
+    }
+
+    /**
+     * Carga en una consulta los contadores por ejercicio de toda la página
+     */
+    private Map<String, Map<Long, Integer>> loadExerciseCompletions(List<User> users) {
+        List<String> ids = users.stream().map(User::getKeycloakId).toList();
+        Map<String, Map<Long, Integer>> completions = new HashMap<>();
+        for (UserExerciseStat stat : userExerciseStatRepository.findByUserIdIn(ids)) {
+            completions.computeIfAbsent(stat.getUserId(), id -> new HashMap<>())
+                .put(stat.getExerciseId(), stat.getCompletions());
+        }
+        return completions;
+    }
+
+    private BackgroundJobDTO toDTO(AchievementBackfillJob job) {
+        return BackgroundJobDTO.builder()
+            .id(job.getId())
+            .name(JOB_NAME)
+            .achievementId(job.getAchievementId())
+            .status(job.getStatus().name())
+            .cursor(job.getLastUserId())
+            .processedUsers(job.getProcessedUsers())
+            .updatedUsers(job.getUnlockedUsers())
+            .startedAt(job.getStartedAt())
+            .finishedAt(job.getFinishedAt())
+            .error(job.getError())
+            .build();
+    }
+}
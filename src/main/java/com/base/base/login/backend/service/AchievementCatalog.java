@@ -0,0 +1,30 @@
+package com.base.base.login.backend.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.base.base.login.backend.dto.AchievementDTO;
+import com.base.base.login.backend.entity.Achievement;
+
+/**
+ * Catálogo inmutable de logros activos con sus DTOs y el índice de reglas ya construidos
+ * Se carga en una transacción propia de sólo lectura (CatalogSnapshot.loadDetached), así que las
+ * entidades quedan desacopladas de cualquier contexto de persistencia: sólo sirven para lectura.
+ */
+record AchievementCatalog(
+        List<AchievementDTO> activeDTOs,
+        Map<Long, AchievementDTO> dtoById,
+        AchievementRuleEngine.RuleIndex rules,
+        String etag) {
+
+    static AchievementCatalog of(List<Achievement> active, Function<Achievement, AchievementDTO> toDTO) {
+        List<AchievementDTO> dtos = active.stream().map(toDTO).toList();
+        Map<Long, AchievementDTO> byId = dtos.stream()
+            .collect(Collectors.toUnmodifiableMap(AchievementDTO::getId, Function.identity()));
+        // Derivado del contenido: estable entre reinicios y distinto en cuanto cambia un DTO
+        String etag = "achievements-" + dtos.size() + "-" + Integer.toHexString(dtos.hashCode());
+        return new AchievementCatalog(dtos, byId, AchievementRuleEngine.RuleIndex.of(active), etag);
+    }
+}
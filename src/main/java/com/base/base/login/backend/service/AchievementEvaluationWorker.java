@@ -0,0 +1,96 @@
+package com.base.base.login.backend.service;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.base.base.login.backend.cache.AchievementUnlockInbox;
+import com.base.base.login.backend.dto.UserAchievementDTO;
+import com.base.base.login.backend.event.WorkoutCompletedEvent;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Evalúa logros en segundo plano tras completar rutinas
+ * Usa hilos virtuales y agrupa los eventos de un mismo usuario: mientras hay una
+ * evaluación pendiente o en curso, los nuevos eventos sólo piden una pasada más.
+ * Cada pasada abre una transacción, así que como mucho app.achievements.max-concurrent-evaluations
+ * se ejecutan a la vez para no quitar conexiones del pool a las peticiones.
+ */
+@Component
+@Slf4j
+public class AchievementEvaluationWorker {
+
+    private final AchievementService achievementService;
+    private final AchievementUnlockInbox unlockInbox;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore evaluations;
+
+    // Usuarios con evaluación en cola o en curso; true = ha llegado otro evento y hay que repetir
+    private final ConcurrentHashMap<String, Boolean> pending = new ConcurrentHashMap<>();
+
+    public AchievementEvaluationWorker(AchievementService achievementService,
+                                       AchievementUnlockInbox unlockInbox,
+                                       @Value("${app.achievements.max-concurrent-evaluations:2}") int maxConcurrentEvaluations) {
+        this.achievementService = achievementService;
+        this.unlockInbox = unlockInbox;
+        this.evaluations = new Semaphore(maxConcurrentEvaluations, true);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onWorkoutCompleted(WorkoutCompletedEvent event) {
+        schedule(event.keycloakId());
+    }
+
+    /**
+     * Programa una evaluación para el usuario, o la agrupa con la que ya está pendiente
+     */
+    public void schedule(String keycloakId) {
+        if (pending.put(keycloakId, Boolean.TRUE) == null) {
+            executor.execute(() -> run(keycloakId));
+        }
+    }
+
+    private void run(String keycloakId) {
+        boolean drained = false;
+        try {
+            do {
+                pending.put(keycloakId, Boolean.FALSE);
+                evaluate(keycloakId);
+            } while (!pending.remove(keycloakId, Boolean.FALSE));
+            drained = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // Si la pasada acabó con un Error o se interrumpió, se libera al usuario para futuras evaluaciones
+            if (!drained) {
+                pending.remove(keycloakId);
+            }
+        }
+    }
+
+    private void evaluate(String keycloakId) throws InterruptedException {
+        evaluations.acquire();
+        try {
+            List<UserAchievementDTO> unlocked = achievementService.evaluateAchievements(keycloakId);
+            unlockInbox.add(keycloakId, unlocked);
+        } catch (RuntimeException e) {
+            log.error("Error evaluando logros del usuario {}", keycloakId, e);
+        } finally {
+            evaluations.release();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
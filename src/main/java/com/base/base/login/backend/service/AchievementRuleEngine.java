@@ -0,0 +1,172 @@
+package com.base.base.login.backend.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.base.base.login.backend.entity.Achievement;
+import com.base.base.login.backend.entity.User;
+
+/**
+ * Motor de reglas de logros
+ * Trabaja sobre un índice de los logros activos por tipo y ordenados por requiredValue
+ * (construido con el catálogo), de modo que los umbrales superados se encuentran con
+ * una búsqueda binaria por tipo.
+ */
+@Component
+public class AchievementRuleEngine {
+
+    /**
+     * Devuelve los logros cuyo umbral ha superado el usuario y que aún no tiene
+     * Los contadores por ejercicio (id de ejercicio → compleciones) sólo se cargan
+     * si hay reglas pendientes que los necesiten.
+     */
+    List<Achievement> findNewlyCrossed(RuleIndex current, User user, Predicate<Long> isUnlocked,
+                                       Supplier<Map<Long, Integer>> exerciseCompletions) {
+        List<Achievement> crossed = new ArrayList<>();
+
+        current.byType(Achievement.AchievementType.WORKOUT_COUNT)
+            .collectCrossed(user.getWorkoutsCompleted(), isUnlocked, crossed);
+        current.byType(Achievement.AchievementType.TOTAL_POINTS)
+            .collectCrossed(user.getTotalPoints(), isUnlocked, crossed);
+        current.byType(Achievement.AchievementType.LEVEL_REACHED)
+            .collectCrossed(user.getCurrentLevel(), isUnlocked, crossed);
+        current.byType(Achievement.AchievementType.CONSECUTIVE_DAYS)
+            .collectCrossed(user.getLongestStreak() != null ? user.getLongestStreak() : 0, isUnlocked, crossed);
+
+        RuleList categoryMaster = current.byType(Achievement.AchievementType.CATEGORY_MASTER);
+        if (categoryMaster.hasPending(isUnlocked)) {
+            categoryMaster.collectCrossed(exerciseCompletions.get().size(), isUnlocked, crossed);
+        }
+
+        current.specificExercise().forEach((exerciseId, rules) -> {
+            if (rules.hasPending(isUnlocked)) {
+                int completions = exerciseCompletions.get().getOrDefault(exerciseId, 0);
+                rules.collectCrossed(completions, isUnlocked, crossed);
+            }
+        });
+
+        return crossed;
+    }
+
+    /**
+     * Indica si el usuario cumple un logro concreto, con los mismos criterios que el índice
+     */
+    public boolean qualifies(Achievement achievement, User user, Map<Long, Integer> exerciseCompletions) {
+        if (achievement.getRequiredValue() == null) {
+            return false;
+        }
+        long metric = switch (achievement.getType()) {
+            case WORKOUT_COUNT -> user.getWorkoutsCompleted();
+            case TOTAL_POINTS -> user.getTotalPoints();
+            case LEVEL_REACHED -> user.getCurrentLevel();
+            case CONSECUTIVE_DAYS -> user.getLongestStreak() != null ? user.getLongestStreak() : 0;
+            case CATEGORY_MASTER -> exerciseCompletions.size();
+            case SPECIFIC_EXERCISE -> achievement.getExerciseId() != null
+                ? exerciseCompletions.getOrDefault(achievement.getExerciseId(), 0)
+                : 0;
+        };
+        return metric >= achievement.getRequiredValue();
+    }
+
+    /**
+     * Indica si el tipo de logro se evalúa con los contadores por ejercicio
+     */
+    public static boolean needsExerciseStats(Achievement.AchievementType type) {
+        return type == Achievement.AchievementType.CATEGORY_MASTER
+            || type == Achievement.AchievementType.SPECIFIC_EXERCISE;
+    }
+
+    /**
+     * Logros activos agrupados por tipo (y por ejercicio en SPECIFIC_EXERCISE)
+     */
+    record RuleIndex(Map<Achievement.AchievementType, RuleList> rulesByType, Map<Long, RuleList> specificExercise) {
+
+        static RuleIndex of(List<Achievement> achievements) {
+            Map<Achievement.AchievementType, List<Achievement>> grouped = new EnumMap<>(Achievement.AchievementType.class);
+            Map<Long, List<Achievement>> byExercise = new HashMap<>();
+            for (Achievement achievement : achievements) {
+                // Sin valor requerido la regla no se puede evaluar automáticamente
+                if (achievement.getRequiredValue() == null) {
+                    continue;
+                }
+                if (achievement.getType() == Achievement.AchievementType.SPECIFIC_EXERCISE) {
+                    if (achievement.getExerciseId() != null) {
+                        byExercise.computeIfAbsent(achievement.getExerciseId(), id -> new ArrayList<>()).add(achievement);
+                    }
+                    continue;
+                }
+                grouped.computeIfAbsent(achievement.getType(), type -> new ArrayList<>()).add(achievement);
+            }
+
+            Map<Achievement.AchievementType, RuleList> rules = new EnumMap<>(Achievement.AchievementType.class);
+            grouped.forEach((type, list) -> rules.put(type, RuleList.of(list)));
+            Map<Long, RuleList> specific = new HashMap<>();
+            byExercise.forEach((exerciseId, list) -> specific.put(exerciseId, RuleList.of(list)));
+            return new RuleIndex(rules, specific);
+        }
+
+        RuleList byType(Achievement.AchievementType type) {
+            return rulesByType.getOrDefault(type, RuleList.EMPTY);
+        }
+    }
+
+    /**
+     * Reglas ordenadas por requiredValue con sus umbrales en un array paralelo
+     */
+    record RuleList(Achievement[] rules, long[] thresholds) {
+
+        static final RuleList EMPTY = new RuleList(new Achievement[0], new long[0]);
+
+        static RuleList of(List<Achievement> achievements) {
+            Achievement[] sorted = achievements.stream()
+                .sorted(Comparator.comparing(Achievement::getRequiredValue))
+                .toArray(Achievement[]::new);
+            long[] values = new long[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                values[i] = sorted[i].getRequiredValue();
+            }
+            return new RuleList(sorted, values);
+        }
+
+        void collectCrossed(long metric, Predicate<Long> isUnlocked, List<Achievement> out) {
+            int end = upperBound(metric);
+            for (int i = 0; i < end; i++) {
+                if (!isUnlocked.test(rules[i].getId())) {
+                    out.add(rules[i]);
+                }
+            }
+        }
+
+        boolean hasPending(Predicate<Long> isUnlocked) {
+            for (Achievement rule : rules) {
+                if (!isUnlocked.test(rule.getId())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // Primera posición cuyo umbral es mayor que la métrica
+        private int upperBound(long metric) {
+            int low = 0;
+            int high = thresholds.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (thresholds[mid] <= metric) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+    }
+}
@@ -1,21 +1,40 @@
 package com.base.base.login.backend.service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.base.base.login.backend.cache.AchievementUnlockInbox;
+import com.base.base.login.backend.cache.CatalogSnapshot;
+import com.base.base.login.backend.cache.DashboardCache;
+import com.base.base.login.backend.cache.UnlockedAchievementCache;
+import com.base.base.login.backend.cache.UnlockedAchievements;
+import com.base.base.login.backend.cache.UserCache;
 import com.base.base.login.backend.dto.AchievementDTO;
 import com.base.base.login.backend.dto.AchievementRequest;
 import com.base.base.login.backend.dto.UserAchievementDTO;
 import com.base.base.login.backend.entity.Achievement;
 import com.base.base.login.backend.entity.User;
 import com.base.base.login.backend.entity.UserAchievement;
+import com.base.base.login.backend.entity.UserExerciseStat;
 import com.base.base.login.backend.repository.AchievementRepository;
 import com.base.base.login.backend.repository.UserAchievementRepository;
-import com.base.base.login.backend.repository.WorkoutExerciseRepository;
+import com.base.base.login.backend.repository.UserRepository;
+import com.base.base.login.backend.repository.UserExerciseStatRepository;
+import com.base.base.login.backend.repository.projection.UserAchievementView;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -29,24 +48,66 @@ public class AchievementService {
 
     private final AchievementRepository achievementRepository;
     private final UserAchievementRepository userAchievementRepository;
-    private final WorkoutExerciseRepository workoutExerciseRepository;
+    private final UserExerciseStatRepository userExerciseStatRepository;
+    private final UserCache userCache;
+    private final DashboardCache dashboardCache;
+    private final AchievementRuleEngine ruleEngine;
+    private final UnlockedAchievementCache unlockedAchievementCache;
+    private final UserRepository userRepository;
+    private final AchievementUnlockInbox unlockInbox;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+
+    private final CatalogSnapshot<AchievementCatalog> catalog = new CatalogSnapshot<>(this::loadCatalog);
 
     /**
      * Obtiene todos los logros activos
      */
     public List<AchievementDTO> getAllActiveAchievements() {
-        return achievementRepository.findByIsActiveTrue().stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return catalog.get().activeDTOs();
+    }
+
+    /**
+     * Obtiene la versión (ETag) del catálogo de logros activos
+     */
+    public String getCatalogETag() {
+        return catalog.get().etag();
     }
 
     /**
      * Obtiene los logros de un usuario
      */
     public List<UserAchievementDTO> getUserAchievements(User user) {
-        return userAchievementRepository.findByUserOrderByUnlockedAtDesc(user).stream()
-            .map(this::toUserAchievementDTO)
-            .collect(Collectors.toList());
+        return toUserAchievementDTOs(userAchievementRepository.findViewsByUser(user));
+    }
+
+    /**
+     * Obtiene los últimos logros desbloqueados por un usuario
+     */
+    public List<UserAchievementDTO> getRecentAchievements(User user, int limit) {
+        return toUserAchievementDTOs(userAchievementRepository.findRecentViewsByUser(user, PageRequest.of(0, limit)));
+    }
+
+    private List<UserAchievementDTO> toUserAchievementDTOs(List<UserAchievementView> unlocked) {
+        // Los logros activos salen del catálogo; los desactivados se cargan juntos
+        Map<Long, AchievementDTO> achievements = new HashMap<>(catalog.get().dtoById());
+        Set<Long> missing = unlocked.stream()
+            .map(UserAchievementView::achievementId)
+            .filter(id -> !achievements.containsKey(id))
+            .collect(Collectors.toSet());
+        if (!missing.isEmpty()) {
+            achievementRepository.findAllById(missing)
+                .forEach(achievement -> achievements.put(achievement.getId(), toDTO(achievement)));
+        }
+
+        return unlocked.stream()
+            .map(view -> UserAchievementDTO.builder()
+                .id(view.id())
+                .achievement(achievements.get(view.achievementId()))
+                .unlockedAt(view.unlockedAt())
+                .progressValue(view.progressValue())
+                .build())
+            .toList();
     }
 
     /**
@@ -65,6 +126,7 @@ public class AchievementService {
         if (achievementRepository.existsByName(request.getName())) {
             throw new RuntimeException("Ya existe un logro con ese nombre");
         }
+        validateTarget(request);
 
         Achievement achievement = Achievement.builder()
             .name(request.getName())
@@ -72,12 +134,14 @@ public class AchievementService {
             .type(Achievement.AchievementType.valueOf(request.getType()))
             .iconUrl(request.getIconUrl())
             .requiredValue(request.getRequiredValue())
+            .exerciseId(request.getExerciseId())
             .pointsReward(request.getPointsReward())
             .rarity(Achievement.AchievementRarity.valueOf(request.getRarity()))
             .isActive(true)
             .build();
 
         Achievement saved = achievementRepository.save(achievement);
+        catalog.invalidate();
         log.info("Logro creado: {}", saved.getName());
         return toDTO(saved);
     }
@@ -93,16 +157,19 @@ public class AchievementService {
             achievementRepository.existsByName(request.getName())) {
             throw new RuntimeException("Ya existe otro logro con ese nombre");
         }
+        validateTarget(request);
 
         achievement.setName(request.getName());
         achievement.setDescription(request.getDescription());
         achievement.setType(Achievement.AchievementType.valueOf(request.getType()));
         achievement.setIconUrl(request.getIconUrl());
         achievement.setRequiredValue(request.getRequiredValue());
+        achievement.setExerciseId(request.getExerciseId());
         achievement.setPointsReward(request.getPointsReward());
         achievement.setRarity(Achievement.AchievementRarity.valueOf(request.getRarity()));
 
         Achievement updated = achievementRepository.save(achievement);
+        catalog.invalidate();
         log.info("Logro actualizado: {}", updated.getName());
         return toDTO(updated);
     }
@@ -115,6 +182,7 @@ public class AchievementService {
         Achievement achievement = getAchievementById(id);
         achievement.setIsActive(false);
         achievementRepository.save(achievement);
+        catalog.invalidate();
         log.info("Logro desactivado: {}", achievement.getName());
     }
 
@@ -123,63 +191,110 @@ public class AchievementService {
      */
     @Transactional
     public UserAchievementDTO unlockAchievement(User user, Achievement achievement) {
-        if (userAchievementRepository.existsByUserAndAchievement(user, achievement)) {
+        if (unlockedAchievementCache.get(user).contains(achievement.getId())) {
             throw new RuntimeException("El usuario ya tiene este logro");
         }
+        return grantAchievement(user, achievement);
+    }
+
+    /**
+     * Devuelve y vacía los logros desbloqueados en segundo plano desde la última consulta
+     */
+    public List<UserAchievementDTO> takeRecentUnlocks(User user) {
+        return unlockInbox.drain(user.getKeycloakId());
+    }
+
+    /**
+     * Evalúa los logros de un usuario con su estado confirmado en base de datos
+     */
+    @Transactional
+    public List<UserAchievementDTO> evaluateAchievements(String keycloakId) {
+        User user = userRepository.findByKeycloakId(keycloakId)
+            .orElseThrow(() -> new RuntimeException("Usuario no encontrado"));
+        // Los contadores se actualizan en SQL; la entidad sólo se lee y no debe volcarse al hacer flush
+        entityManager.detach(user);
+        return checkAndUnlockAchievements(user);
+    }
 
+    /**
+     * Verifica y desbloquea logros automáticamente según el progreso del usuario
+     * Los logros ya conseguidos salen de la caché de desbloqueos y el motor de reglas
+     * devuelve sólo los umbrales superados; se repite mientras las recompensas
+     * desbloqueen nuevos logros de puntos o nivel.
+     */
+    @Transactional
+    public List<UserAchievementDTO> checkAndUnlockAchievements(User user) {
+        UnlockedAchievements unlocked = unlockedAchievementCache.get(user);
+        Set<Long> grantedNow = new HashSet<>();
+        Predicate<Long> isUnlocked = id -> unlocked.contains(id) || grantedNow.contains(id);
+        Supplier<Map<Long, Integer>> exerciseCompletions = memoize(() -> userExerciseStatRepository
+            .findByUserId(user.getKeycloakId()).stream()
+            .collect(Collectors.toMap(UserExerciseStat::getExerciseId, UserExerciseStat::getCompletions)));
+
+        AchievementCatalog current = catalog.get();
+        List<UserAchievementDTO> result = new ArrayList<>();
+        List<Achievement> crossed = ruleEngine.findNewlyCrossed(current.rules(), user, isUnlocked, exerciseCompletions);
+        while (!crossed.isEmpty()) {
+            for (Achievement achievement : crossed) {
+                result.add(grantAchievement(user, achievement));
+                grantedNow.add(achievement.getId());
+            }
+            crossed = ruleEngine.findNewlyCrossed(current.rules(), user, isUnlocked, exerciseCompletions);
+        }
+        return result;
+    }
+
+    private UserAchievementDTO grantAchievement(User user, Achievement achievement) {
         UserAchievement userAchievement = UserAchievement.builder()
             .user(user)
-            .achievement(achievement)
+            .achievement(achievementRepository.getReferenceById(achievement.getId()))
             .build();
 
         UserAchievement saved = userAchievementRepository.save(userAchievement);
+        unlockedAchievementCache.markUnlocked(user.getKeycloakId(), achievement.getId());
         
-        // Añadir puntos de recompensa
-        user.addPoints(achievement.getPointsReward());
+        // Puntos de recompensa con una sentencia atómica; el usuario en memoria se actualiza
+        // con los contadores devueltos para que la siguiente pasada de reglas los vea
+        Integer reward = achievement.getPointsReward();
+        if (reward != null && reward > 0) {
+            userRepository.addPoints(user.getKeycloakId(), reward).applyTo(user);
+        }
+        userCache.invalidate(user.getKeycloakId());
+        dashboardCache.invalidate(user.getKeycloakId());
         
         log.info("Logro desbloqueado: {} para usuario: {}", achievement.getName(), user.getUsername());
-        return toUserAchievementDTO(saved);
+        return UserAchievementDTO.builder()
+            .id(saved.getId())
+            .achievement(catalog.get().dtoById().getOrDefault(achievement.getId(), toDTO(achievement)))
+            .unlockedAt(saved.getUnlockedAt())
+            .progressValue(saved.getProgressValue())
+            .build();
     }
 
-    /**
-     * Verifica y desbloquea logros automáticamente según el progreso del usuario
-     */
-    @Transactional
-    public void checkAndUnlockAchievements(User user) {
-        List<Achievement> activeAchievements = achievementRepository.findByIsActiveTrue();
+    private AchievementCatalog loadCatalog() {
+        return CatalogSnapshot.loadDetached(transactionTemplate,
+            () -> AchievementCatalog.of(achievementRepository.findByIsActiveTrue(), this::toDTO));
+    }
 
-        for (Achievement achievement : activeAchievements) {
-            // Si ya tiene el logro, continuar
-            if (userAchievementRepository.existsByUserAndAchievement(user, achievement)) {
-                continue;
-            }
+    private void validateTarget(AchievementRequest request) {
+        if (Achievement.AchievementType.SPECIFIC_EXERCISE.name().equals(request.getType())
+                && request.getExerciseId() == null) {
+            throw new RuntimeException("Los logros de tipo SPECIFIC_EXERCISE requieren un ejercicio");
+        }
+    }
 
-            boolean shouldUnlock = false;
-
-            switch (achievement.getType()) {
-                case WORKOUT_COUNT:
-                    shouldUnlock = user.getWorkoutsCompleted() >= achievement.getRequiredValue();
-                    break;
-                case TOTAL_POINTS:
-                    shouldUnlock = user.getTotalPoints() >= achievement.getRequiredValue();
-                    break;
-                case LEVEL_REACHED:
-                    shouldUnlock = user.getCurrentLevel() >= achievement.getRequiredValue();
-                    break;
-                case CATEGORY_MASTER:
-                    Long distinctExercises = workoutExerciseRepository.countDistinctCompletedExercisesByUser(user);
-                    shouldUnlock = distinctExercises != null && achievement.getRequiredValue() != null
-                        && distinctExercises >= achievement.getRequiredValue();
-                    break;
-                default:
-                    // Otros tipos requieren verificación manual
-                    break;
-            }
+    private static <T> Supplier<T> memoize(Supplier<T> supplier) {
+        return new Supplier<T>() {
+            private T value;
 
-            if (shouldUnlock) {
-                unlockAchievement(user, achievement);
+            @Override
+            public T get() {
+                if (value == null) {
+                    value = supplier.get();
+                }
+                return value;
             }
-        }
+        };
     }
 
     /**
@@ -193,6 +308,7 @@ public class AchievementService {
             .type(achievement.getType().name())
             .iconUrl(achievement.getIconUrl())
             .requiredValue(achievement.getRequiredValue())
+            .exerciseId(achievement.getExerciseId())
             .pointsReward(achievement.getPointsReward())
             .rarity(achievement.getRarity().name())
             .isActive(achievement.getIsActive())
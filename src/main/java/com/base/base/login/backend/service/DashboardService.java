@@ -1,103 +1,178 @@
 package com.base.base.login.backend.service;
 
-import java.time.LocalDateTime;
-import java.time.temporal.ChronoUnit;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.base.base.login.backend.cache.DashboardCache;
+import com.base.base.login.backend.cache.UnlockedAchievementCache;
 import com.base.base.login.backend.dto.DashboardDTO;
 import com.base.base.login.backend.dto.LeaderboardDTO;
 import com.base.base.login.backend.dto.UserAchievementDTO;
+import com.base.base.login.backend.dto.UserDTO;
 import com.base.base.login.backend.dto.WorkoutDTO;
 import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.entity.UserDailyActivity;
+import com.base.base.login.backend.repository.UserDailyActivityRepository;
 import com.base.base.login.backend.repository.UserRepository;
-import com.base.base.login.backend.repository.WorkoutRepository;
-import com.base.base.login.backend.repository.UserAchievementRepository;
 
-import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * Servicio de dashboard y leaderboard
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class DashboardService {
 
+    private static final int ACTIVITY_WEEK_DAYS = 7;
+    private static final int ACTIVITY_MONTH_DAYS = 30;
+    private static final int RECENT_LIMIT = 5;
+
     private final UserRepository userRepository;
-    private final WorkoutRepository workoutRepository;
-    private final UserAchievementRepository userAchievementRepository;
+    private final UserDailyActivityRepository userDailyActivityRepository;
     private final WorkoutService workoutService;
     private final AchievementService achievementService;
     private final UserService userService;
+    private final UnlockedAchievementCache unlockedAchievementCache;
+    private final DashboardCache dashboardCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long deadlineNanos;
+    // Limita las transacciones de sección abiertas a la vez entre todas las peticiones para no agotar el pool
+    private final Semaphore sectionConnections;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public DashboardService(UserRepository userRepository,
+                            UserDailyActivityRepository userDailyActivityRepository,
+                            WorkoutService workoutService,
+                            AchievementService achievementService,
+                            UserService userService,
+                            UnlockedAchievementCache unlockedAchievementCache,
+                            DashboardCache dashboardCache,
+                            TransactionTemplate transactionTemplate,
+                            @Value("${app.dashboard.deadline-ms:2000}") long deadlineMillis,
+                            @Value("${app.dashboard.max-concurrent-queries:4}") int maxConcurrentQueries) {
+        this.userRepository = userRepository;
+        this.userDailyActivityRepository = userDailyActivityRepository;
+        this.workoutService = workoutService;
+        this.achievementService = achievementService;
+        this.userService = userService;
+        this.unlockedAchievementCache = unlockedAchievementCache;
+        this.dashboardCache = dashboardCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMillis);
+        this.sectionConnections = new Semaphore(maxConcurrentQueries, true);
+    }
 
     /**
-     * Obtiene los datos del dashboard del usuario
+     * Obtiene los datos del dashboard del usuario (desde la caché si no ha cambiado nada)
      */
     public DashboardDTO getDashboard(User user) {
-        // Estadísticas
-        Long totalWorkouts = workoutRepository.countCompletedWorkoutsByUser(user);
-        Integer totalPoints = user.getTotalPoints();
-        Long achievementsCount = userAchievementRepository.countByUser(user);
+        return dashboardCache.get(user.getKeycloakId(), () -> buildDashboard(user));
+    }
 
-        // Workouts de esta semana
-        LocalDateTime weekStart = LocalDateTime.now().minus(7, ChronoUnit.DAYS);
-        LocalDateTime now = LocalDateTime.now();
-        List<com.base.base.login.backend.entity.Workout> workoutsThisWeek = 
-            workoutRepository.findWorkoutsByUserAndDateRange(user, weekStart, now);
+    /**
+     * Monta el dashboard lanzando sus secciones a la vez en hilos virtuales
+     * Cada sección con consultas lee en su propia transacción de sólo lectura, como mucho
+     * app.dashboard.max-concurrent-queries a la vez; el perfil se monta en el hilo de la petición.
+     * Las secciones que fallan o no terminan antes del plazo se sustituyen por un valor por defecto
+     * y el resultado se marca como parcial.
+     */
+    private DashboardDTO buildDashboard(User user) {
+        long deadline = System.nanoTime() + deadlineNanos;
+
+        Future<DashboardDTO.DashboardStats> stats = submit(() -> buildStats(user));
+        Future<List<WorkoutDTO>> recentWorkouts = submit(() -> workoutService
+            .getRecentCompletedWorkouts(user, RECENT_LIMIT));
+        Future<List<WorkoutDTO>> favoriteWorkouts = submit(() -> workoutService
+            .getRecentFavoriteWorkouts(user, RECENT_LIMIT));
+        Future<List<UserAchievementDTO>> recentAchievements = submit(() -> achievementService
+            .getRecentAchievements(user, RECENT_LIMIT));
+
+        Sections sections = new Sections(user.getKeycloakId(), deadline);
+        UserDTO profile = sections.run("profile", () -> userService.toDTO(user), () -> null);
+        return DashboardDTO.builder()
+            .user(profile)
+            .stats(sections.await("stats", stats, () -> baseStats(user).build()))
+            .recentWorkouts(sections.await("recentWorkouts", recentWorkouts, List::of))
+            .favoriteWorkouts(sections.await("favoriteWorkouts", favoriteWorkouts, List::of))
+            .recentAchievements(sections.await("recentAchievements", recentAchievements, List::of))
+            .partial(sections.partial)
+            .build();
+    }
+
+    private DashboardDTO.DashboardStats buildStats(User user) {
+        int achievementsCount = unlockedAchievementCache.get(user).count();
+
+        // Sesiones de los últimos 7 y 30 días (hoy incluido) desde el resumen diario: como mucho 30 filas
+        LocalDate today = LocalDate.now();
+        LocalDate weekStart = today.minusDays(ACTIVITY_WEEK_DAYS - 1);
+        int workoutsThisWeek = 0;
+        int workoutsThisMonth = 0;
+        for (UserDailyActivity day : userDailyActivityRepository
+                .findByUserIdAndActivityDateBetween(user.getKeycloakId(), today.minusDays(ACTIVITY_MONTH_DAYS - 1), today)) {
+            workoutsThisMonth += day.getSessions();
+            if (!day.getActivityDate().isBefore(weekStart)) {
+                workoutsThisWeek += day.getSessions();
+            }
+        }
+
+        return baseStats(user)
+            .achievementsUnlocked(achievementsCount)
+            .workoutsThisWeek(workoutsThisWeek)
+            .workoutsThisMonth(workoutsThisMonth)
+            .build();
+    }
 
-        // Workouts de este mes
-        LocalDateTime monthStart = LocalDateTime.now().minus(30, ChronoUnit.DAYS);
-        List<com.base.base.login.backend.entity.Workout> workoutsThisMonth = 
-            workoutRepository.findWorkoutsByUserAndDateRange(user, monthStart, now);
+    /**
+     * Estadísticas que salen de los contadores del usuario, sin consultas
+     */
+    private static DashboardDTO.DashboardStats.DashboardStatsBuilder baseStats(User user) {
+        int totalWorkouts = user.getWorkoutsCompleted();
+        Integer totalPoints = user.getTotalPoints();
 
         // Promedio de puntos por workout
-        Double averagePoints = totalWorkouts > 0 ? 
-            totalPoints.doubleValue() / totalWorkouts.doubleValue() : 0.0;
+        Double averagePoints = totalWorkouts > 0 ?
+            totalPoints.doubleValue() / totalWorkouts : 0.0;
 
-        DashboardDTO.DashboardStats stats = DashboardDTO.DashboardStats.builder()
-            .totalWorkouts(totalWorkouts.intValue())
+        return DashboardDTO.DashboardStats.builder()
+            .totalWorkouts(totalWorkouts)
             .totalPoints(totalPoints)
             .currentLevel(user.getCurrentLevel())
             .badge(user.getBadge())
             .pointsForNextLevel(user.getPointsForNextLevel())
-            .achievementsUnlocked(achievementsCount.intValue())
-            .workoutsThisWeek(workoutsThisWeek.size())
-            .workoutsThisMonth(workoutsThisMonth.size())
-            .averageWorkoutPoints(averagePoints)
-            .build();
-
-        // Últimas 5 rutinas completadas
-        List<WorkoutDTO> recentWorkouts = workoutRepository
-            .findCompletedWorkoutsByUser(user).stream()
-            .limit(5)
-            .map(workoutService::toDTO)
-            .collect(Collectors.toList());
-
-        // Rutinas favoritas (máximo 5)
-        List<WorkoutDTO> favoriteWorkouts = workoutRepository
-            .findTop5ByUserAndFavoriteTrueOrderByUpdatedAtDesc(user).stream()
-            .map(workoutService::toDTO)
-            .collect(Collectors.toList());
+            .averageWorkoutPoints(averagePoints);
+    }
 
-        // Últimos 5 logros desbloqueados
-        List<UserAchievementDTO> recentAchievements = userAchievementRepository
-            .findByUserOrderByUnlockedAtDesc(user).stream()
-            .limit(5)
-            .map(achievementService::toUserAchievementDTO)
-            .collect(Collectors.toList());
+    private <T> Future<T> submit(Supplier<T> section) {
+        return executor.submit(() -> {
+            sectionConnections.acquire();
+            try {
+                return readOnlyTransaction.execute(status -> section.get());
+            } finally {
+                sectionConnections.release();
+            }
+        });
+    }
 
-        return DashboardDTO.builder()
-            .user(userService.toDTO(user))
-            .stats(stats)
-            .recentWorkouts(recentWorkouts)
-            .recentAchievements(recentAchievements)
-                .favoriteWorkouts(favoriteWorkouts)
-            .build();
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
     }
 
     /**
@@ -109,7 +184,7 @@ public class DashboardService {
         List<LeaderboardDTO.LeaderboardEntry> entries = topUsers.stream()
             .map(user -> {
                 int rank = topUsers.indexOf(user) + 1;
-                Long achievementsCount = userAchievementRepository.countByUser(user);
+                int achievementsCount = unlockedAchievementCache.get(user).count();
                 
                 return LeaderboardDTO.LeaderboardEntry.builder()
                     .rank(rank)
@@ -118,7 +193,7 @@ public class DashboardService {
                     .currentLevel(user.getCurrentLevel())
                     .badge(user.getBadge())
                     .workoutsCompleted(user.getWorkoutsCompleted())
-                    .achievementsCount(achievementsCount.intValue())
+                    .achievementsCount(achievementsCount)
                     .build();
             })
             .collect(Collectors.toList());
@@ -128,4 +203,45 @@ public class DashboardService {
             .totalUsers(entries.size())
             .build();
     }
+
+    /**
+     * Espera las secciones contra un plazo común y recuerda si alguna tuvo que sustituirse
+     */
+    private static final class Sections {
+
+        private final String keycloakId;
+        private final long deadline;
+        private boolean partial;
+
+        Sections(String keycloakId, long deadline) {
+            this.keycloakId = keycloakId;
+            this.deadline = deadline;
+        }
+
+        <T> T run(String name, Supplier<T> section, Supplier<T> fallback) {
+            try {
+                return section.get();
+            } catch (RuntimeException e) {
+                log.error("Error en la sección {} del dashboard de {}", name, keycloakId, e);
+                partial = true;
+                return fallback.get();
+            }
+        }
+
+        <T> T await(String name, Future<T> future, Supplier<T> fallback) {
+            try {
+                return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                future.cancel(true);
+                log.warn("Sección {} del dashboard de {} fuera de plazo", name, keycloakId);
+            } catch (ExecutionException e) {
+                log.error("Error en la sección {} del dashboard de {}", name, keycloakId, e.getCause());
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+            }
+            partial = true;
+            return fallback.get();
+        }
+    }
 }
@@ -0,0 +1,43 @@
+package com.base.base.login.backend.service;
+
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.base.base.login.backend.dto.ExerciseDTO;
+import com.base.base.login.backend.entity.Exercise;
+
+/**
+ * Catálogo inmutable de ejercicios activos con sus DTOs ya construidos
+ * Se carga en una transacción propia de sólo lectura (CatalogSnapshot.loadDetached), así que las
+ * entidades quedan desacopladas de cualquier contexto de persistencia: sólo sirven para lectura.
+ */
+record ExerciseCatalog(
+        Map<Long, Exercise> activeById,
+        List<ExerciseDTO> activeDTOs,
+        Map<Long, ExerciseDTO> activeDTOById,
+        Map<Exercise.ExerciseCategory, List<ExerciseDTO>> activeDTOsByCategory,
+        String etag) {
+
+    static ExerciseCatalog of(List<Exercise> active, Function<Exercise, ExerciseDTO> toDTO) {
+        Map<Long, Exercise> byId = active.stream()
+            .collect(Collectors.toUnmodifiableMap(Exercise::getId, Function.identity()));
+        List<ExerciseDTO> dtos = active.stream().map(toDTO).toList();
+        Map<Long, ExerciseDTO> dtoById = dtos.stream()
+            .collect(Collectors.toUnmodifiableMap(ExerciseDTO::getId, Function.identity()));
+
+        Map<Exercise.ExerciseCategory, List<ExerciseDTO>> byCategory = new EnumMap<>(Exercise.ExerciseCategory.class);
+        for (Exercise.ExerciseCategory category : Exercise.ExerciseCategory.values()) {
+            byCategory.put(category, dtos.stream()
+                .filter(dto -> category.name().equals(dto.getCategory()))
+                .sorted(Comparator.comparing(ExerciseDTO::getName))
+                .toList());
+        }
+        // Derivado del contenido: estable entre reinicios y distinto en cuanto cambia un DTO
+        String etag = "exercises-" + dtos.size() + "-" + Integer.toHexString(dtos.hashCode());
+        return new ExerciseCatalog(byId, dtos, dtoById, byCategory, etag);
+    }
+}
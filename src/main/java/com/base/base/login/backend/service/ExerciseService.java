@@ -1,15 +1,23 @@
 package com.base.base.login.backend.service;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import com.base.base.login.backend.cache.CatalogSnapshot;
 import com.base.base.login.backend.dto.ExerciseDTO;
 import com.base.base.login.backend.dto.ExerciseRequest;
 import com.base.base.login.backend.entity.Exercise;
 import com.base.base.login.backend.repository.ExerciseRepository;
+import com.base.base.login.backend.repository.projection.ExerciseView;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -23,14 +31,22 @@ import lombok.extern.slf4j.Slf4j;
 public class ExerciseService {
 
     private final ExerciseRepository exerciseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final CatalogSnapshot<ExerciseCatalog> catalog = new CatalogSnapshot<>(this::loadCatalog);
 
     /**
      * Obtiene todos los ejercicios activos
      */
     public List<ExerciseDTO> getAllActiveExercises() {
-        return exerciseRepository.findByIsActiveTrue().stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return catalog.get().activeDTOs();
+    }
+
+    /**
+     * Obtiene la versión (ETag) del catálogo de ejercicios activos
+     */
+    public String getCatalogETag() {
+        return catalog.get().etag();
     }
 
     /**
@@ -41,6 +57,28 @@ public class ExerciseService {
             .orElseThrow(() -> new RuntimeException("Ejercicio no encontrado con id: " + id));
     }
 
+    /**
+     * Obtiene varios ejercicios activos del catálogo en memoria
+     * Falla indicando todos los ids que no existen o están inactivos.
+     */
+    public Map<Long, Exercise> getActiveExercisesById(Collection<Long> ids) {
+        Map<Long, Exercise> active = catalog.get().activeById();
+        Map<Long, Exercise> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long id : ids) {
+            Exercise exercise = id != null ? active.get(id) : null;
+            if (exercise != null) {
+                result.put(id, exercise);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new RuntimeException("Ejercicios no encontrados o inactivos: " + missing);
+        }
+        return result;
+    }
+
     /**
      * Crea un nuevo ejercicio
      */
@@ -61,6 +99,7 @@ public class ExerciseService {
             .build();
 
         Exercise saved = exerciseRepository.save(exercise);
+        catalog.invalidate();
         log.info("Ejercicio creado: {}", saved.getName());
         return toDTO(saved);
     }
@@ -85,6 +124,7 @@ public class ExerciseService {
         exercise.setEstimatedDurationMinutes(request.getEstimatedDurationMinutes());
 
         Exercise updated = exerciseRepository.save(exercise);
+        catalog.invalidate();
         log.info("Ejercicio actualizado: {}", updated.getName());
         return toDTO(updated);
     }
@@ -97,6 +137,7 @@ public class ExerciseService {
         Exercise exercise = getExerciseById(id);
         exercise.setIsActive(false);
         exerciseRepository.save(exercise);
+        catalog.invalidate();
         log.info("Ejercicio desactivado: {}", exercise.getName());
     }
 
@@ -104,11 +145,46 @@ public class ExerciseService {
      * Obtiene ejercicios por categoría
      */
     public List<ExerciseDTO> getExercisesByCategory(String category) {
-        return exerciseRepository.findActiveByCategoryOrderByName(
-            Exercise.ExerciseCategory.valueOf(category)
-        ).stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return catalog.get().activeDTOsByCategory().get(Exercise.ExerciseCategory.valueOf(category));
+    }
+
+    private ExerciseCatalog loadCatalog() {
+        return CatalogSnapshot.loadDetached(transactionTemplate,
+            () -> ExerciseCatalog.of(exerciseRepository.findByIsActiveTrue(), this::toDTO));
+    }
+
+    /**
+     * Obtiene el DTO de un ejercicio referenciado por otra entidad
+     * Los activos salen del catálogo usando sólo el id (sin inicializar el proxy perezoso);
+     * los desactivados se convierten desde la entidad.
+     */
+    public ExerciseDTO getExerciseDTO(Exercise exercise) {
+        ExerciseDTO cached = catalog.get().activeDTOById().get(exercise.getId());
+        return cached != null ? cached : toDTO(exercise);
+    }
+
+    /**
+     * Obtiene los DTOs de varios ejercicios por id
+     * Los activos salen del catálogo; los desactivados se leen en una sola consulta por proyección.
+     */
+    public Map<Long, ExerciseDTO> getExerciseDTOs(Collection<Long> ids) {
+        Map<Long, ExerciseDTO> active = catalog.get().activeDTOById();
+        Map<Long, ExerciseDTO> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            ExerciseDTO dto = active.get(id);
+            if (dto != null) {
+                result.put(id, dto);
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (ExerciseView view : exerciseRepository.findViewsByIdIn(missing)) {
+                result.put(view.id(), toDTO(view));
+            }
+        }
+        return result;
     }
 
     /**
@@ -126,4 +202,17 @@ public class ExerciseService {
             .isActive(exercise.getIsActive())
             .build();
     }
+
+    private ExerciseDTO toDTO(ExerciseView view) {
+        return ExerciseDTO.builder()
+            .id(view.id())
+            .name(view.name())
+            .description(view.description())
+            .pointsReward(view.pointsReward())
+            .difficulty(view.difficulty().name())
+            .category(view.category().name())
+            .estimatedDurationMinutes(view.estimatedDurationMinutes())
+            .isActive(view.isActive())
+            .build();
+    }
 }
@@ -0,0 +1,149 @@
+package com.base.base.login.backend.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.base.base.login.backend.entity.UserAchievement;
+import com.base.base.login.backend.entity.Workout;
+import com.base.base.login.backend.entity.WorkoutExercise;
+import com.base.base.login.backend.repository.UserAchievementRepository;
+import com.base.base.login.backend.repository.WorkoutExerciseRepository;
+import com.base.base.login.backend.repository.WorkoutRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exporta el historial completo de un usuario en NDJSON (un objeto JSON por línea)
+ * Rutinas y líneas se leen con dos cursores de sólo avance ordenados por rutina y se
+ * combinan al vuelo; el contexto de persistencia se vacía periódicamente, de modo que la
+ * memoria no depende del tamaño del historial.
+ */
+@Service
+@Slf4j
+public class HistoryExportService {
+
+    // Tipo de contenido de las descargas de historial (usuario y admin)
+    public static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final int CLEAR_EVERY = 500;
+
+    private final WorkoutRepository workoutRepository;
+    private final WorkoutExerciseRepository workoutExerciseRepository;
+    private final UserAchievementRepository userAchievementRepository;
+    private final WorkoutService workoutService;
+    private final AchievementService achievementService;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    // Sin indentación: cada registro debe ocupar exactamente una línea
+    private final ObjectWriter lineWriter;
+
+    public HistoryExportService(WorkoutRepository workoutRepository,
+                                WorkoutExerciseRepository workoutExerciseRepository,
+                                UserAchievementRepository userAchievementRepository,
+                                WorkoutService workoutService,
+                                AchievementService achievementService,
+                                EntityManager entityManager,
+                                TransactionTemplate transactionTemplate,
+                                ObjectMapper objectMapper) {
+        this.workoutRepository = workoutRepository;
+        this.workoutExerciseRepository = workoutExerciseRepository;
+        this.userAchievementRepository = userAchievementRepository;
+        this.workoutService = workoutService;
+        this.achievementService = achievementService;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.lineWriter = objectMapper.writer().without(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    /**
+     * Devuelve el cuerpo de la respuesta; la lectura se hace mientras se escribe
+     */
+    public StreamingResponseBody export(String keycloakId) {
+        return out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out);
+            readOnlyTransaction.executeWithoutResult(tx -> {
+                long written = writeWorkouts(keycloakId, buffered) + writeAchievements(keycloakId, buffered);
+                log.info("Historial exportado para usuario {}: {} registros", keycloakId, written);
+            });
+            buffered.flush();
+        };
+    }
+
+    private long writeWorkouts(String keycloakId, OutputStream out) {
+        long count = 0;
+        try (Stream<Workout> workouts = workoutRepository.streamByUserId(keycloakId);
+             Stream<WorkoutExercise> lines = workoutExerciseRepository.streamByUserId(keycloakId)) {
+            Iterator<WorkoutExercise> lineIterator = lines.iterator();
+            WorkoutExercise pending = lineIterator.hasNext() ? lineIterator.next() : null;
+
+            Iterator<Workout> workoutIterator = workouts.iterator();
+            while (workoutIterator.hasNext()) {
+                Workout workout = workoutIterator.next();
+
+                // Ambos cursores van ordenados por id de rutina: se toman las líneas de esta rutina
+                List<WorkoutExercise> workoutLines = new ArrayList<>();
+                while (pending != null && pending.getWorkout().getId() <= workout.getId()) {
+                    if (pending.getWorkout().getId().equals(workout.getId())) {
+                        workoutLines.add(pending);
+                    }
+                    pending = lineIterator.hasNext() ? lineIterator.next() : null;
+                }
+
+                writeLine(out, new ExportLine("workout", workoutService.toDTO(workout, workoutLines)));
+                if (++count % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        entityManager.clear();
+        return count;
+    }
+
+    private long writeAchievements(String keycloakId, OutputStream out) {
+        long count = 0;
+        try (Stream<UserAchievement> achievements = userAchievementRepository.streamByUserId(keycloakId)) {
+            Iterator<UserAchievement> iterator = achievements.iterator();
+            while (iterator.hasNext()) {
+                writeLine(out, new ExportLine("achievement", achievementService.toUserAchievementDTO(iterator.next())));
+                if (++count % CLEAR_EVERY == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    private void writeLine(OutputStream out, ExportLine line) {
+        try {
+            out.write(lineWriter.writeValueAsBytes(line));
+            out.write('\n');
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializando el historial", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Registro del fichero exportado: tipo ("workout" o "achievement") y datos
+     */
+    record ExportLine(String type, Object data) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.base.base.login.backend.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.base.base.login.backend.cache.DashboardCache;
+import com.base.base.login.backend.cache.UserCache;
+import com.base.base.login.backend.dto.BackgroundJobDTO;
+import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.repository.UserRepository;
+import com.base.base.login.backend.repository.WorkoutSessionRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Recalcula las rachas de los usuarios existentes a partir de su historial
+ * Recorre los usuarios por páginas (keyset sobre keycloakId) y lee las sesiones
+ * de cada uno en una única pasada ordenada en streaming.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StreakBackfillJob {
+
+    private static final String JOB_NAME = "streak-backfill";
+    private static final int PAGE_SIZE = 200;
+
+    private final UserRepository userRepository;
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final UserCache userCache;
+    private final DashboardCache dashboardCache;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+    private volatile String status = "IDLE";
+    private volatile long processedUsers;
+    private volatile long updatedUsers;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+
+    /**
+     * Lanza el recálculo en un hilo virtual
+     */
+    public BackgroundJobDTO start() {
+        if (!running.compareAndSet(false, true)) {
+            throw new RuntimeException("El recálculo de rachas ya está en curso");
+        }
+        status = "RUNNING";
+        processedUsers = 0;
+        updatedUsers = 0;
+        startedAt = LocalDateTime.now();
+        finishedAt = null;
+        error = null;
+
+        Thread.ofVirtual().name(JOB_NAME).start(this::run);
+        return getStatus();
+    }
+
+    public BackgroundJobDTO getStatus() {
+        return BackgroundJobDTO.builder()
+            .name(JOB_NAME)
+            .status(status)
+            .processedUsers(processedUsers)
+            .updatedUsers(updatedUsers)
+            .startedAt(startedAt)
+            .finishedAt(finishedAt)
+            .error(error)
+            .build();
+    }
+
+    private void run() {
+        try {
+            String cursor = "";
+            while (cursor != null) {
+                String after = cursor;
+                cursor = transactionTemplate.execute(tx -> processPage(after));
+            }
+            status = "COMPLETED";
+            log.info("Rachas recalculadas: {} usuarios procesados, {} actualizados", processedUsers, updatedUsers);
+        } catch (RuntimeException e) {
+            status = "FAILED";
+            error = e.getMessage();
+            log.error("Error recalculando rachas", e);
+        } finally {
+            finishedAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    /**
+     * Procesa una página de usuarios y devuelve el cursor de la siguiente (null al terminar)
+     */
+    private String processPage(String after) {
+        List<User> users = userRepository.findByKeycloakIdGreaterThanOrderByKeycloakIdAsc(after, PageRequest.of(0, PAGE_SIZE));
+
+        for (User user : users) {
+            int[] streaks;
+            try (Stream<LocalDateTime> completions = workoutSessionRepository.streamCompletionTimesByUserId(user.getKeycloakId())) {
+                streaks = computeStreaks(completions);
+            }
+
+            // Escritura condicional: si entretanto se completó una rutina, su actualización atómica ya dejó las rachas al día
+            if ((!Objects.equals(user.getCurrentStreak(), streaks[0]) || !Objects.equals(user.getLongestStreak(), streaks[1]))
+                    && userRepository.updateStreaksIfUnchanged(user.getKeycloakId(), streaks[0], streaks[1],
+                        user.getLastWorkoutDate())) {
+                userCache.invalidate(user.getKeycloakId());
+                dashboardCache.invalidate(user.getKeycloakId());
+                updatedUsers++;
+            }
+            processedUsers++;
+        }
+
+        return users.size() < PAGE_SIZE ? null : users.get(users.size() - 1).getKeycloakId();
+    }
+
+    /**
+     * Calcula {racha actual, racha más larga} sobre fechas ordenadas
+     * La actual es la que termina en el último día, y 0 si ese día ya no es hoy ni ayer.
+     */
+    private static int[] computeStreaks(Stream<LocalDateTime> orderedCompletions) {
+        int[] state = {0, 0};
+        LocalDate[] lastDay = {null};
+
+        orderedCompletions.forEach(completedAt -> {
+            LocalDate day = completedAt.toLocalDate();
+            if (lastDay[0] != null && lastDay[0].isEqual(day)) {
+                return;
+            }
+            state[0] = lastDay[0] != null && lastDay[0].plusDays(1).isEqual(day) ? state[0] + 1 : 1;
+            state[1] = Math.max(state[1], state[0]);
+            lastDay[0] = day;
+        });
+
+        state[0] = User.effectiveStreak(state[0], lastDay[0], LocalDate.now());
+        return state;
+    }
+}
@@ -3,11 +3,13 @@ package com.base.base.login.backend.service;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
+import com.base.base.login.backend.cache.SingleFlight;
+import com.base.base.login.backend.cache.UnlockedAchievementCache;
+import com.base.base.login.backend.cache.UserCache;
+import com.base.base.login.backend.config.DatabasePlatform;
 import com.base.base.login.backend.dto.UserDTO;
 import com.base.base.login.backend.entity.User;
-import com.base.base.login.backend.repository.UserAchievementRepository;
 import com.base.base.login.backend.repository.UserRepository;
 
 import lombok.RequiredArgsConstructor;
@@ -22,44 +24,63 @@ import lombok.extern.slf4j.Slf4j;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final UserAchievementRepository userAchievementRepository;
+    private final UnlockedAchievementCache unlockedAchievementCache;
+    private final UserCache userCache;
+    private final DatabasePlatform databasePlatform;
+    private final SingleFlight<String, Boolean> provisioning = new SingleFlight<>();
 
     /**
      * Obtiene o crea un usuario desde el token JWT de Keycloak
+     * Sin transacción propia: el alta se confirma antes de que otras peticiones
+     * concurrentes del mismo usuario vuelvan a consultarlo.
      */
-    @Transactional
     public User getOrCreateUserFromAuthentication(Authentication authentication) {
         Jwt jwt = (Jwt) authentication.getPrincipal();
         
+        String keycloakId = jwt.getSubject();
+        User cached = userCache.get(keycloakId);
+        if (cached != null) {
+            return cached;
+        }
+
+        // La generación se toma antes de leer: si el usuario se invalida mientras tanto, la copia no se guarda
+        long generation = userCache.generation(keycloakId);
+        User user = userRepository.findByKeycloakId(keycloakId)
+            .orElseGet(() -> provisionUser(jwt));
+        userCache.put(user, generation);
+        return user;
+    }
+
+    /**
+     * Da de alta al usuario con un único INSERT idempotente
+     * Las peticiones simultáneas del mismo subject esperan al alta en curso en lugar de repetirla.
+     */
+    private User provisionUser(Jwt jwt) {
         String keycloakId = jwt.getSubject();
         String username = jwt.getClaimAsString("preferred_username");
         String email = jwt.getClaimAsString("email");
         String firstName = jwt.getClaimAsString("given_name");
         String lastName = jwt.getClaimAsString("family_name");
 
-        return userRepository.findByKeycloakId(keycloakId)
-            .orElseGet(() -> {
+        provisioning.execute(keycloakId, () -> {
+            int inserted = databasePlatform.isPostgres()
+                ? userRepository.insertIfAbsent(keycloakId, username, email, firstName, lastName)
+                : userRepository.mergeIfAbsent(keycloakId, username, email, firstName, lastName);
+            if (inserted > 0) {
                 log.info("Creando nuevo usuario desde Keycloak: {}", username);
-                User newUser = User.builder()
-                    .keycloakId(keycloakId)
-                    .username(username)
-                    .email(email)
-                    .firstName(firstName)
-                    .lastName(lastName)
-                    .totalPoints(0)
-                    .currentLevel(1)
-                    .workoutsCompleted(0)
-                    .isActive(true)
-                    .build();
-                return userRepository.save(newUser);
-            });
+            }
+            return inserted > 0;
+        });
+
+        return userRepository.findByKeycloakId(keycloakId)
+            .orElseThrow(() -> new RuntimeException("No se pudo crear el usuario: " + username));
     }
 
     /**
      * Convierte entidad User a DTO
      */
     public UserDTO toDTO(User user) {
-        Long achievementsCount = userAchievementRepository.countByUser(user);
+        int achievementsCount = unlockedAchievementCache.get(user).count();
         
         return UserDTO.builder()
             .keycloakId(user.getKeycloakId())
@@ -70,9 +91,11 @@ public class UserService {
             .totalPoints(user.getTotalPoints())
             .currentLevel(user.getCurrentLevel())
             .workoutsCompleted(user.getWorkoutsCompleted())
+            .currentStreak(user.getEffectiveStreak())
+            .longestStreak(user.getLongestStreak())
             .badge(user.getBadge())
             .pointsForNextLevel(user.getPointsForNextLevel())
-            .achievementsCount(achievementsCount.intValue())
+            .achievementsCount(achievementsCount)
             .build();
     }
 
@@ -82,12 +105,4 @@ public class UserService {
     public User getCurrentUser(Authentication authentication) {
         return getOrCreateUserFromAuthentication(authentication);
     }
-
-    /**
-     * Actualiza información del usuario
-     */
-    @Transactional
-    public User updateUser(User user) {
-        return userRepository.save(user);
-    }
 }
@@ -0,0 +1,29 @@
+package com.base.base.login.backend.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Cursor de paginación de rutinas: fecha de ordenación e id de la última rutina devuelta
+ * Se serializa como texto opaco (Base64 URL) para que el cliente sólo lo reenvíe.
+ */
+record WorkoutCursor(LocalDateTime timestamp, Long id) {
+
+    static WorkoutCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new WorkoutCursor(
+                LocalDateTime.parse(raw.substring(0, separator)),
+                Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Cursor de paginación no válido");
+        }
+    }
+
+    String encode() {
+        String raw = timestamp + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -1,14 +1,23 @@
 package com.base.base.login.backend.service;
 
-import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.base.base.login.backend.cache.DashboardCache;
+import com.base.base.login.backend.cache.UserCache;
+import com.base.base.login.backend.dto.CursorPageDTO;
 import com.base.base.login.backend.dto.ExerciseDTO;
 import com.base.base.login.backend.dto.WorkoutDTO;
 import com.base.base.login.backend.dto.WorkoutRequest;
@@ -16,9 +25,19 @@ import com.base.base.login.backend.entity.Exercise;
 import com.base.base.login.backend.entity.User;
 import com.base.base.login.backend.entity.Workout;
 import com.base.base.login.backend.entity.WorkoutExercise;
+import com.base.base.login.backend.entity.WorkoutSession;
+import com.base.base.login.backend.event.WorkoutCompletedEvent;
+import com.base.base.login.backend.repository.UserDailyActivityRepository;
+import com.base.base.login.backend.repository.UserExerciseStatRepository;
+import com.base.base.login.backend.repository.UserRepository;
 import com.base.base.login.backend.repository.WorkoutExerciseRepository;
 import com.base.base.login.backend.repository.WorkoutRepository;
+import com.base.base.login.backend.repository.WorkoutSessionRepository;
+import com.base.base.login.backend.repository.projection.WorkoutLineView;
+import com.base.base.login.backend.repository.projection.WorkoutListVersion;
+import com.base.base.login.backend.repository.projection.WorkoutView;
 
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
@@ -30,27 +49,121 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class WorkoutService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+
     private final WorkoutRepository workoutRepository;
     private final WorkoutExerciseRepository workoutExerciseRepository;
     private final ExerciseService exerciseService;
-    private final AchievementService achievementService;
+    private final UserCache userCache;
+    private final DashboardCache dashboardCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserExerciseStatRepository userExerciseStatRepository;
+    private final UserRepository userRepository;
+    private final WorkoutSessionRepository workoutSessionRepository;
+    private final UserDailyActivityRepository userDailyActivityRepository;
+    private final EntityManager entityManager;
 
     /**
      * Obtiene todas las rutinas de un usuario
      */
     public List<WorkoutDTO> getUserWorkouts(User user) {
-        return workoutRepository.findByUserOrderByCreatedAtDesc(user).stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return toDTOs(workoutRepository.findViewsByUser(user), workoutExerciseRepository.findViewsByUser(user));
+    }
+
+    /**
+     * Obtiene la versión (ETag) del listado de rutinas del usuario
+     * Combina número de rutinas, última modificación y catálogo de ejercicios (los DTOs lo incluyen).
+     */
+    public String getUserWorkoutsETag(User user) {
+        WorkoutListVersion version = workoutRepository.findListVersionByUser(user);
+        LocalDateTime lastUpdatedAt = version.getLastUpdatedAt();
+        String lastUpdated = lastUpdatedAt != null
+            ? lastUpdatedAt.toEpochSecond(ZoneOffset.UTC) + "." + lastUpdatedAt.getNano()
+            : "0";
+        return "workouts-" + version.getCount() + "-" + lastUpdated + "-" + exerciseService.getCatalogETag();
     }
 
     /**
      * Obtiene rutinas completadas de un usuario
      */
     public List<WorkoutDTO> getCompletedWorkouts(User user) {
-        return workoutRepository.findCompletedWorkoutsByUser(user).stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return toDTOs(workoutRepository.findCompletedViewsByUser(user),
+            workoutExerciseRepository.findCompletedViewsByUser(user));
+    }
+
+    /**
+     * Obtiene las últimas rutinas completadas del usuario (sólo lee las que devuelve)
+     */
+    public List<WorkoutDTO> getRecentCompletedWorkouts(User user, int limit) {
+        return toDTOs(workoutRepository.findFirstCompletedPageByUser(user, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Obtiene las últimas rutinas favoritas modificadas del usuario (sólo lee las que devuelve)
+     */
+    public List<WorkoutDTO> getRecentFavoriteWorkouts(User user, int limit) {
+        return toDTOs(workoutRepository.findFavoriteViewsByUser(user, PageRequest.of(0, limit)));
+    }
+
+    /**
+     * Obtiene una página del historial de rutinas del usuario, de la más reciente a la más antigua
+     */
+    public CursorPageDTO<WorkoutDTO> getUserWorkoutsPage(User user, String cursor, int size) {
+        int limit = clampPageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<WorkoutView> workouts;
+        if (cursor == null || cursor.isBlank()) {
+            workouts = workoutRepository.findFirstPageByUser(user, page);
+        } else {
+            WorkoutCursor after = WorkoutCursor.decode(cursor);
+            workouts = workoutRepository.findPageByUserAfter(user, after.timestamp(), after.id(), page);
+        }
+        return toPage(workouts, limit, WorkoutView::createdAt);
+    }
+
+    /**
+     * Obtiene una página de las rutinas completadas del usuario, de la última completada hacia atrás
+     */
+    public CursorPageDTO<WorkoutDTO> getCompletedWorkoutsPage(User user, String cursor, int size) {
+        int limit = clampPageSize(size);
+        PageRequest page = PageRequest.of(0, limit + 1);
+        List<WorkoutView> workouts;
+        if (cursor == null || cursor.isBlank()) {
+            workouts = workoutRepository.findFirstCompletedPageByUser(user, page);
+        } else {
+            WorkoutCursor after = WorkoutCursor.decode(cursor);
+            workouts = workoutRepository.findCompletedPageByUserAfter(user, after.timestamp(), after.id(), page);
+        }
+        return toPage(workouts, limit, WorkoutView::completedAt);
+    }
+
+    // Carga las líneas de las rutinas indicadas en una sola consulta
+    private List<WorkoutDTO> toDTOs(List<WorkoutView> workouts) {
+        List<WorkoutLineView> lines = workouts.isEmpty()
+            ? List.of()
+            : workoutExerciseRepository.findViewsByWorkoutIds(workouts.stream().map(WorkoutView::id).toList());
+        return toDTOs(workouts, lines);
+    }
+
+    private static int clampPageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    // Se pide una fila de más para saber si hay página siguiente sin contar
+    private CursorPageDTO<WorkoutDTO> toPage(List<WorkoutView> workouts, int limit,
+                                             Function<WorkoutView, LocalDateTime> sortKey) {
+        boolean hasMore = workouts.size() > limit;
+        List<WorkoutView> items = hasMore ? workouts.subList(0, limit) : workouts;
+        String nextCursor = null;
+        if (hasMore) {
+            WorkoutView last = items.get(items.size() - 1);
+            nextCursor = new WorkoutCursor(sortKey.apply(last), last.id()).encode();
+        }
+        return CursorPageDTO.<WorkoutDTO>builder()
+            .items(toDTOs(items))
+            .nextCursor(nextCursor)
+            .hasMore(hasMore)
+            .build();
     }
 
     /**
@@ -66,6 +179,8 @@ public class WorkoutService {
      */
     @Transactional
     public WorkoutDTO createWorkout(User user, WorkoutRequest request) {
+        Map<Long, Exercise> exercises = resolveExercises(request, List.of());
+
         Workout workout = Workout.builder()
             .name(request.getName())
             .description(request.getDescription())
@@ -79,24 +194,9 @@ public class WorkoutService {
         Workout savedWorkout = workoutRepository.save(workout);
 
         // Añadir ejercicios
-        if (request.getExercises() != null && !request.getExercises().isEmpty()) {
-            for (WorkoutRequest.WorkoutExerciseRequest exReq : request.getExercises()) {
-                Exercise exercise = exerciseService.getExerciseById(exReq.getExerciseId());
-                
-                WorkoutExercise workoutExercise = WorkoutExercise.builder()
-                    .workout(savedWorkout)
-                    .exercise(exercise)
-                    .sets(exReq.getSets())
-                    .reps(exReq.getReps())
-                    .restSeconds(exReq.getRestSeconds())
-                    .orderIndex(exReq.getOrderIndex())
-                    .notes(exReq.getNotes())
-                    .isCompleted(false)
-                    .build();
-
-                savedWorkout.getExercises().add(workoutExerciseRepository.save(workoutExercise));
-            }
-        }
+        List<WorkoutExercise> lines = buildExercises(savedWorkout, request, exercises);
+        savedWorkout.getExercises().addAll(workoutExerciseRepository.saveAll(lines));
+        dashboardCache.invalidate(user.getKeycloakId());
 
         log.info("Rutina creada: {} para usuario: {}", savedWorkout.getName(), user.getUsername());
         return toDTO(savedWorkout);
@@ -116,50 +216,139 @@ public class WorkoutService {
         if (workout.getStatus() == Workout.WorkoutStatus.COMPLETED) {
             throw new RuntimeException("No se puede editar una rutina completada");
         }
+        Map<Long, Exercise> exercises = resolveExercises(request, workout.getExercises());
 
         workout.setName(request.getName());
         workout.setDescription(request.getDescription());
+        // Cambiar sólo los ejercicios no ensucia la rutina; se marca para que cambie el ETag del listado
+        workout.setUpdatedAt(LocalDateTime.now());
 
         if (request.getFavorite() != null) {
             workout.setFavorite(request.getFavorite());
         }
 
-        // Eliminar ejercicios existentes
-        workoutExerciseRepository.deleteByWorkout(workout);
-        workout.getExercises().clear();
-
-        // Añadir nuevos ejercicios
-        if (request.getExercises() != null && !request.getExercises().isEmpty()) {
-            for (WorkoutRequest.WorkoutExerciseRequest exReq : request.getExercises()) {
-                Exercise exercise = exerciseService.getExerciseById(exReq.getExerciseId());
-                
-                WorkoutExercise workoutExercise = WorkoutExercise.builder()
-                    .workout(workout)
-                    .exercise(exercise)
-                    .sets(exReq.getSets())
-                    .reps(exReq.getReps())
-                    .restSeconds(exReq.getRestSeconds())
-                    .orderIndex(exReq.getOrderIndex())
-                    .notes(exReq.getNotes())
-                    .isCompleted(false)
-                    .build();
-
-                workout.getExercises().add(workoutExerciseRepository.save(workoutExercise));
-            }
-        }
+        reconcileExercises(workout, request, exercises);
 
         Workout updated = workoutRepository.save(workout);
+        dashboardCache.invalidate(user.getKeycloakId());
         log.info("Rutina actualizada: {}", updated.getName());
         return toDTO(updated);
     }
 
+    /**
+     * Resuelve de una vez todos los ejercicios referenciados por la petición
+     * Los que ya están en la rutina se reutilizan aunque se hayan desactivado después;
+     * sólo los que se añaden tienen que estar activos.
+     */
+    private Map<Long, Exercise> resolveExercises(WorkoutRequest request, List<WorkoutExercise> existingLines) {
+        if (request.getExercises() == null || request.getExercises().isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, Exercise> exercises = new HashMap<>();
+        for (WorkoutExercise line : existingLines) {
+            exercises.putIfAbsent(line.getExercise().getId(), line.getExercise());
+        }
+        List<Long> added = request.getExercises().stream()
+            .map(WorkoutRequest.WorkoutExerciseRequest::getExerciseId)
+            .filter(id -> id == null || !exercises.containsKey(id))
+            .toList();
+        exercises.putAll(exerciseService.getActiveExercisesById(added));
+        return exercises;
+    }
+
+    private List<WorkoutExercise> buildExercises(Workout workout, WorkoutRequest request, Map<Long, Exercise> exercises) {
+        if (request.getExercises() == null) {
+            return List.of();
+        }
+        return request.getExercises().stream()
+            .map(exReq -> newLine(workout, exReq, exercises))
+            .toList();
+    }
+
+    /**
+     * Reconcilia las líneas de la rutina con las de la petición
+     * Cada línea pedida se empareja con una existente por id o, si no lo trae, por orderIndex.
+     * Las emparejadas se actualizan en sitio (Hibernate sólo escribe las que cambian), las nuevas
+     * se insertan en batch y las sobrantes se borran con un único DELETE y se desacoplan.
+     */
+    private void reconcileExercises(Workout workout, WorkoutRequest request, Map<Long, Exercise> exercises) {
+        List<WorkoutRequest.WorkoutExerciseRequest> requested =
+            request.getExercises() != null ? request.getExercises() : List.of();
+
+        Map<Long, WorkoutExercise> unmatched = new LinkedHashMap<>();
+        for (WorkoutExercise line : workout.getExercises()) {
+            unmatched.put(line.getId(), line);
+        }
+
+        // Primero por id, para que el emparejamiento por orderIndex no se quede líneas referenciadas
+        List<WorkoutRequest.WorkoutExerciseRequest> withoutId = new ArrayList<>();
+        for (WorkoutRequest.WorkoutExerciseRequest exReq : requested) {
+            WorkoutExercise line = exReq.getId() != null ? unmatched.remove(exReq.getId()) : null;
+            if (line != null) {
+                applyLine(line, exReq, exercises);
+            } else {
+                withoutId.add(exReq);
+            }
+        }
+
+        Map<Integer, WorkoutExercise> byOrderIndex = new HashMap<>();
+        for (WorkoutExercise line : unmatched.values()) {
+            if (line.getOrderIndex() != null) {
+                byOrderIndex.putIfAbsent(line.getOrderIndex(), line);
+            }
+        }
+
+        List<WorkoutExercise> added = new ArrayList<>();
+        for (WorkoutRequest.WorkoutExerciseRequest exReq : withoutId) {
+            WorkoutExercise line = exReq.getOrderIndex() != null ? byOrderIndex.remove(exReq.getOrderIndex()) : null;
+            if (line != null) {
+                unmatched.remove(line.getId());
+                applyLine(line, exReq, exercises);
+            } else {
+                added.add(newLine(workout, exReq, exercises));
+            }
+        }
+
+        if (!unmatched.isEmpty()) {
+            workoutExerciseRepository.deleteByWorkoutAndIdIn(workout, unmatched.keySet());
+            workout.getExercises().removeIf(line -> unmatched.containsKey(line.getId()));
+            unmatched.values().forEach(entityManager::detach);
+        }
+        workout.getExercises().addAll(workoutExerciseRepository.saveAll(added));
+    }
+
+    private static WorkoutExercise newLine(Workout workout, WorkoutRequest.WorkoutExerciseRequest exReq,
+                                           Map<Long, Exercise> exercises) {
+        return WorkoutExercise.builder()
+            .workout(workout)
+            .exercise(exercises.get(exReq.getExerciseId()))
+            .sets(exReq.getSets())
+            .reps(exReq.getReps())
+            .restSeconds(exReq.getRestSeconds())
+            .orderIndex(exReq.getOrderIndex())
+            .notes(exReq.getNotes())
+            .isCompleted(false)
+            .build();
+    }
+
+    private static void applyLine(WorkoutExercise line, WorkoutRequest.WorkoutExerciseRequest exReq,
+                                  Map<Long, Exercise> exercises) {
+        if (!line.getExercise().getId().equals(exReq.getExerciseId())) {
+            line.setExercise(exercises.get(exReq.getExerciseId()));
+        }
+        line.setSets(exReq.getSets());
+        line.setReps(exReq.getReps());
+        line.setRestSeconds(exReq.getRestSeconds());
+        line.setOrderIndex(exReq.getOrderIndex());
+        line.setNotes(exReq.getNotes());
+    }
+
     /**
      * Obtiene las rutinas favoritas del usuario
      */
     public List<WorkoutDTO> getFavoriteWorkouts(User user) {
-        return workoutRepository.findByUserAndFavoriteTrueOrderByUpdatedAtDesc(user).stream()
-            .map(this::toDTO)
-            .collect(Collectors.toList());
+        return toDTOs(workoutRepository.findFavoriteViewsByUser(user),
+            workoutExerciseRepository.findFavoriteViewsByUser(user));
     }
 
     /**
@@ -175,6 +364,7 @@ public class WorkoutService {
 
         workout.setFavorite(favorite);
         Workout saved = workoutRepository.save(workout);
+        dashboardCache.invalidate(user.getKeycloakId());
         return toDTO(saved);
     }
 
@@ -189,29 +379,51 @@ public class WorkoutService {
             throw new RuntimeException("No tienes permiso para completar esta rutina");
         }
 
-        // Evitar completar más de una vez por día
-        if (workout.getCompletedAt() != null && workout.getStatus() == Workout.WorkoutStatus.COMPLETED) {
-            boolean completedToday = workout.getCompletedAt().toLocalDate().isEqual(LocalDate.now());
-            if (completedToday) {
-                throw new RuntimeException("Esta rutina ya se completó hoy. Inténtalo mañana.");
-            }
-            // Si fue completada en días anteriores, resetear para permitir nueva sesión hoy
-            workout.setStatus(Workout.WorkoutStatus.PLANNED);
-            workout.setCompletedAt(null);
+        // Evitar completar más de una vez por día: el UPDATE condicional decide qué petición se lo queda,
+        // y sólo esa suma puntos, sesión y contadores
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = workoutRepository.claimCompletion(
+            workout.getId(), Workout.WorkoutStatus.COMPLETED, now, now.toLocalDate().atStartOfDay());
+        if (claimed != 1) {
+            throw new RuntimeException("Esta rutina ya se completó hoy. Inténtalo mañana.");
         }
 
-        // Completar rutina
-        workout.complete();
-        
-        // Actualizar estadísticas del usuario
-        user.setWorkoutsCompleted(user.getWorkoutsCompleted() + 1);
-        user.addPoints(workout.getTotalPoints());
-        user.setLastWorkoutDate(LocalDateTime.now());
+        // La entidad refleja lo que ya se ha escrito en la fila
+        workout.setStatus(Workout.WorkoutStatus.COMPLETED);
+        workout.setCompletedAt(now);
+        workout.calculateTotalPoints();
+
+        // Puntos, contador, rachas y nivel en una sola sentencia atómica: dos completados
+        // simultáneos del mismo usuario no se pisan y no hace falta bloquear la fila
+        String ownerId = workout.getUser().getKeycloakId();
+        userRepository.recordWorkoutCompletion(ownerId, workout.getTotalPoints(), workout.getCompletedAt());
+
+        // La rutina sólo guarda su última sesión; el registro conserva todas
+        workoutSessionRepository.save(WorkoutSession.builder()
+            .userId(ownerId)
+            .workoutId(workout.getId())
+            .points(workout.getTotalPoints())
+            .completedAt(workout.getCompletedAt())
+            .build());
+        userCache.invalidate(ownerId);
+        dashboardCache.invalidate(ownerId);
+
+        // Contadores por ejercicio para los logros CATEGORY_MASTER y SPECIFIC_EXERCISE
+        Map<Long, Exercise.ExerciseCategory> completedExercises = new LinkedHashMap<>();
+        int minutes = 0;
+        for (WorkoutExercise we : workout.getExercises()) {
+            completedExercises.putIfAbsent(we.getExercise().getId(), we.getExercise().getCategory());
+            Integer duration = we.getExercise().getEstimatedDurationMinutes();
+            minutes += duration != null ? duration : 0;
+        }
+        userExerciseStatRepository.incrementCompletions(ownerId, completedExercises);
 
-        workoutRepository.save(workout);
+        // Resumen diario para las estadísticas del dashboard
+        userDailyActivityRepository.recordSession(ownerId, workout.getCompletedAt().toLocalDate(),
+            workout.getTotalPoints(), workout.getExercises().size(), minutes);
 
-        // Verificar logros
-        achievementService.checkAndUnlockAchievements(user);
+        // Los logros se evalúan en segundo plano tras el commit
+        eventPublisher.publishEvent(new WorkoutCompletedEvent(ownerId, workout.getId()));
 
         log.info("Rutina completada: {} - Puntos: {}", workout.getName(), workout.getTotalPoints());
         return toDTO(workout);
@@ -233,16 +445,61 @@ public class WorkoutService {
         }
 
         workoutRepository.delete(workout);
+        dashboardCache.invalidate(user.getKeycloakId());
         log.info("Rutina eliminada: {}", workout.getName());
     }
 
+    /**
+     * Construye los DTOs a partir de proyecciones: una consulta de rutinas y otra de sus líneas
+     * Los ejercicios se resuelven por id (catálogo en memoria y, para los desactivados, una consulta).
+     */
+    private List<WorkoutDTO> toDTOs(List<WorkoutView> workouts, List<WorkoutLineView> lines) {
+        Map<Long, List<WorkoutLineView>> linesByWorkout = lines.stream()
+            .collect(Collectors.groupingBy(WorkoutLineView::workoutId));
+        Map<Long, ExerciseDTO> exercises = exerciseService.getExerciseDTOs(lines.stream()
+            .map(WorkoutLineView::exerciseId)
+            .collect(Collectors.toSet()));
+
+        return workouts.stream()
+            .map(workout -> WorkoutDTO.builder()
+                .id(workout.id())
+                .name(workout.name())
+                .description(workout.description())
+                .status(workout.status().name())
+                .totalPoints(workout.totalPoints())
+                .completedAt(workout.completedAt())
+                .createdAt(workout.createdAt())
+                .favorite(workout.favorite())
+                .exercises(linesByWorkout.getOrDefault(workout.id(), List.of()).stream()
+                    .map(line -> WorkoutDTO.WorkoutExerciseDTO.builder()
+                        .id(line.id())
+                        .exercise(exercises.get(line.exerciseId()))
+                        .sets(line.sets())
+                        .reps(line.reps())
+                        .restSeconds(line.restSeconds())
+                        .orderIndex(line.orderIndex())
+                        .notes(line.notes())
+                        .isCompleted(line.isCompleted())
+                        .build())
+                    .toList())
+                .build())
+            .toList();
+    }
+
     /**
      * Convierte entidad a DTO
      */
     public WorkoutDTO toDTO(Workout workout) {
-        List<WorkoutDTO.WorkoutExerciseDTO> exerciseDTOs = workout.getExercises().stream()
+        return toDTO(workout, workout.getExercises());
+    }
+
+    /**
+     * Convierte entidad a DTO con las líneas indicadas (ya cargadas por el llamador)
+     */
+    public WorkoutDTO toDTO(Workout workout, List<WorkoutExercise> lines) {
+        List<WorkoutDTO.WorkoutExerciseDTO> exerciseDTOs = lines.stream()
             .map(we -> {
-                ExerciseDTO exerciseDTO = exerciseService.toDTO(we.getExercise());
+                ExerciseDTO exerciseDTO = exerciseService.getExerciseDTO(we.getExercise());
                 return WorkoutDTO.WorkoutExerciseDTO.builder()
                     .id(we.getId())
                     .exercise(exerciseDTO)
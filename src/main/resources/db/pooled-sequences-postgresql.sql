@@ -0,0 +1,28 @@
+-- Migración de ids IDENTITY a secuencias con optimizador pooled (allocationSize = 50)
+-- Idempotente: crea las secuencias si faltan y las sitúa por encima del id máximo de cada tabla.
+-- Con pooled, tras setval(X) Hibernate reserva el bloque [X + 1, X + 50], así que basta con X >= MAX(id).
+-- Se ejecuta antes que ddl-auto: en una base vacía las tablas aún no existen y sólo se crean las secuencias.
+
+DO $$
+DECLARE
+    t text;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'exercises',
+        'achievements',
+        'workouts',
+        'workout_exercises',
+        'user_achievements',
+        'achievement_backfill_jobs',
+        'workout_sessions'
+    ] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I START WITH 1 INCREMENT BY 50', t || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50', t || '_seq');
+        IF to_regclass(t) IS NOT NULL THEN
+            EXECUTE format(
+                'SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) FROM %I), (SELECT last_value FROM %I), 1))',
+                t || '_seq', t, t || '_seq');
+        END IF;
+    END LOOP;
+END
+$$
@@ -0,0 +1,94 @@
+package com.base.base.login.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que los lectores concurrentes comparten una única carga y que una
+ * invalidación durante la carga impide publicar la instantánea vieja
+ */
+class CatalogSnapshotTest {
+
+    @Test
+    void concurrentReadersShareOneLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CatalogSnapshot<String> snapshot = new CatalogSnapshot<>(() -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "catalog";
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<String>> readers = new ArrayList<>();
+            readers.add(executor.submit(snapshot::get));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 7; i++) {
+                readers.add(executor.submit(snapshot::get));
+            }
+            release.countDown();
+
+            for (Future<String> reader : readers) {
+                assertEquals("catalog", reader.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotPublished() {
+        AtomicInteger loads = new AtomicInteger();
+        List<CatalogSnapshot<Integer>> self = new ArrayList<>();
+        CatalogSnapshot<Integer> snapshot = new CatalogSnapshot<>(() -> {
+            int load = loads.incrementAndGet();
+            if (load == 1) {
+                // Un cambio del catálogo se confirma mientras se lee la versión anterior
+                self.get(0).invalidate();
+            }
+            return load;
+        });
+        self.add(snapshot);
+
+        assertEquals(1, snapshot.get());
+        assertEquals(2, snapshot.get());
+        assertEquals(2, snapshot.get());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidateForcesReload() {
+        AtomicInteger loads = new AtomicInteger();
+        CatalogSnapshot<Integer> snapshot = new CatalogSnapshot<>(loads::incrementAndGet);
+
+        Integer first = snapshot.get();
+        assertSame(first, snapshot.get());
+        snapshot.invalidate();
+
+        assertEquals(2, snapshot.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.base.base.login.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.base.base.login.backend.dto.DashboardDTO;
+
+/**
+ * Comprueba la guarda por generación del usuario al guardar dashboards
+ */
+class DashboardCacheTest {
+
+    private final DashboardCache cache = new DashboardCache(100, 60);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void completeDashboardIsCached() {
+        assertEquals(1, version(cache.get("alice", this::load)));
+        assertEquals(1, version(cache.get("alice", this::load)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void partialDashboardIsNotCached() {
+        Supplier<DashboardDTO> partial = () -> {
+            DashboardDTO dashboard = load();
+            dashboard.setPartial(true);
+            return dashboard;
+        };
+
+        cache.get("alice", partial);
+        cache.get("alice", partial);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void invalidationDuringLoadIsNotCached() {
+        cache.get("alice", () -> {
+            DashboardDTO dashboard = load();
+            cache.invalidate("alice");
+            return dashboard;
+        });
+
+        assertEquals(2, version(cache.get("alice", this::load)));
+        assertEquals(2, version(cache.get("alice", this::load)));
+    }
+
+    @Test
+    void invalidationOfAnotherUserDoesNotDiscardTheLoad() {
+        cache.get("alice", () -> {
+            DashboardDTO dashboard = load();
+            cache.invalidate("bob");
+            return dashboard;
+        });
+
+        assertEquals(1, version(cache.get("alice", this::load)));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void requestAfterInvalidationDoesNotGetTheOlderSharedLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<DashboardDTO> before = executor.submit(() -> cache.get("alice", () -> {
+                DashboardDTO dashboard = load();
+                loading.countDown();
+                await(release);
+                return dashboard;
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            cache.invalidate("alice");
+            Future<DashboardDTO> after = executor.submit(() -> cache.get("alice", this::load));
+            release.countDown();
+
+            assertEquals(1, version(before.get(5, TimeUnit.SECONDS)));
+            assertEquals(2, version(after.get(5, TimeUnit.SECONDS)));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private DashboardDTO load() {
+        return DashboardDTO.builder()
+            .stats(DashboardDTO.DashboardStats.builder().totalWorkouts(loads.incrementAndGet()).build())
+            .build();
+    }
+
+    private static int version(DashboardDTO dashboard) {
+        return dashboard.getStats().getTotalWorkouts();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.base.base.login.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que la generación por clave impide guardar cargas que se solaparon con una escritura
+ */
+class ExpiringCacheTest {
+
+    private final ExpiringCache<String, String> cache = new ExpiringCache<>("test", 100, Duration.ofMinutes(5));
+
+    @Test
+    void putIfGenerationStoresWhenNothingChanged() {
+        long generation = cache.generation("a");
+
+        assertTrue(cache.putIfGeneration("a", generation, "v1"));
+        assertEquals("v1", cache.get("a"));
+    }
+
+    @Test
+    void invalidationDuringLoadDiscardsTheLoadedValue() {
+        long generation = cache.generation("a");
+        cache.invalidate("a");
+
+        assertFalse(cache.putIfGeneration("a", generation, "stale"));
+        assertNull(cache.get("a"));
+        assertTrue(cache.putIfGeneration("a", cache.generation("a"), "fresh"));
+        assertEquals("fresh", cache.get("a"));
+    }
+
+    @Test
+    void updateWithoutValueStillBumpsTheGeneration() {
+        long generation = cache.generation("a");
+        cache.update("a", (key, value) -> value + "!");
+
+        assertFalse(cache.putIfGeneration("a", generation, "stale"));
+        assertNull(cache.get("a"));
+    }
+
+    @Test
+    void updateRemapsLiveValueAndBumpsTheGeneration() {
+        cache.put("a", "v1");
+        long generation = cache.generation("a");
+        cache.update("a", (key, value) -> value + "!");
+
+        assertEquals("v1!", cache.get("a"));
+        assertEquals(generation + 1, cache.generation("a"));
+    }
+
+    @Test
+    void writesToOneKeyDoNotAffectOthers() {
+        long generation = cache.generation("b");
+        cache.invalidate("a");
+        cache.update("a", (key, value) -> value);
+
+        assertTrue(cache.putIfGeneration("b", generation, "v"));
+        assertEquals("v", cache.get("b"));
+    }
+
+    @Test
+    void tombstonesAreNotCountedAsEntries() {
+        cache.put("a", "v");
+        cache.invalidate("b");
+
+        assertEquals(1, cache.stats().getSize());
+    }
+}
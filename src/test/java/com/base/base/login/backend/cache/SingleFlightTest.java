@@ -0,0 +1,131 @@
+package com.base.base.login.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que las llamadas concurrentes con la misma clave comparten una sola ejecución
+ */
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> flight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<Integer>> callers = new ArrayList<>();
+        callers.add(executor.submit(() -> flight.execute("k", () -> {
+            running.countDown();
+            await(release);
+            return executions.incrementAndGet();
+        })));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 7; i++) {
+            callers.add(executor.submit(() -> flight.execute("k", executions::incrementAndGet)));
+        }
+        release.countDown();
+
+        for (Future<Integer> caller : callers) {
+            assertEquals(1, caller.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void failureIsSharedAndKeyIsReleased() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        Future<Integer> owner = executor.submit(() -> flight.execute("k", () -> {
+            running.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Future<Integer> joiner = executor.submit(() -> flight.execute("k", () -> 2));
+        release.countDown();
+
+        ExecutionException ownerError = assertThrows(ExecutionException.class, () -> owner.get(5, TimeUnit.SECONDS));
+        assertSame(failure, ownerError.getCause());
+        // El que se unió recibe el mismo error, salvo que llegara después y ejecutara por su cuenta
+        try {
+            assertEquals(2, joiner.get(5, TimeUnit.SECONDS));
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+        assertEquals(3, flight.execute("k", () -> 3));
+    }
+
+    @Test
+    void errorIsSharedWithWaiters() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AssertionError failure = new AssertionError("boom");
+
+        Future<Integer> owner = executor.submit(() -> flight.execute("k", () -> {
+            running.countDown();
+            await(release);
+            throw failure;
+        }));
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        Future<Integer> joiner = executor.submit(() -> flight.execute("k", () -> 2));
+        release.countDown();
+
+        ExecutionException ownerError = assertThrows(ExecutionException.class, () -> owner.get(5, TimeUnit.SECONDS));
+        assertSame(failure, ownerError.getCause());
+        // Sin completar el futuro compartido, el que espera se quedaría bloqueado y get() agotaría el plazo
+        try {
+            assertEquals(2, joiner.get(5, TimeUnit.SECONDS));
+        } catch (ExecutionException e) {
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    void differentKeysRunIndependently() {
+        assertEquals(1, flight.execute("a", () -> flight.execute("b", () -> 1)));
+    }
+
+    @Test
+    void sequentialCallsExecuteAgain() {
+        AtomicInteger executions = new AtomicInteger();
+
+        flight.execute("k", executions::incrementAndGet);
+        flight.execute("k", executions::incrementAndGet);
+
+        assertEquals(2, executions.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.base.base.login.backend.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.repository.UserAchievementRepository;
+
+/**
+ * Comprueba que un desbloqueo durante la carga de un usuario no deja en caché un conjunto sin él,
+ * y que las escrituras de un usuario no afectan a las cargas de otro
+ */
+class UnlockedAchievementCacheTest {
+
+    private final UserAchievementRepository repository = mock(UserAchievementRepository.class);
+    private final UnlockedAchievementCache cache = new UnlockedAchievementCache(repository, 100, 60);
+
+    private final User alice = User.builder().keycloakId("alice").build();
+    private final User bob = User.builder().keycloakId("bob").build();
+
+    @Test
+    void loadsOnceAndServesFromCache() {
+        when(repository.findAchievementIdsByUser(alice)).thenReturn(Set.of(1L, 2L));
+
+        assertEquals(2, cache.get(alice).count());
+        assertEquals(2, cache.get(alice).count());
+        verify(repository, times(1)).findAchievementIdsByUser(alice);
+    }
+
+    @Test
+    void unlockDuringLoadIsNotLost() {
+        when(repository.findAchievementIdsByUser(alice))
+            .thenAnswer(invocation -> {
+                // El desbloqueo se confirma mientras la consulta ya ha leído los datos anteriores
+                cache.markUnlocked("alice", 3L);
+                return Set.of(1L);
+            })
+            .thenReturn(Set.of(1L, 3L));
+
+        assertFalse(cache.get(alice).contains(3L));
+        assertTrue(cache.get(alice).contains(3L));
+        verify(repository, times(2)).findAchievementIdsByUser(alice);
+    }
+
+    @Test
+    void unlockForAnotherUserDoesNotDiscardTheLoad() {
+        when(repository.findAchievementIdsByUser(alice))
+            .thenAnswer(invocation -> {
+                cache.markUnlocked("bob", 3L);
+                return Set.of(1L);
+            });
+
+        cache.get(alice);
+        cache.get(alice);
+        verify(repository, times(1)).findAchievementIdsByUser(alice);
+    }
+
+    @Test
+    void markUnlockedUpdatesCachedSet() {
+        when(repository.findAchievementIdsByUser(bob)).thenReturn(Set.of(1L));
+        cache.get(bob);
+
+        cache.markUnlocked("bob", 5L);
+
+        assertTrue(cache.get(bob).contains(5L));
+        assertEquals(2, cache.get(bob).count());
+        verify(repository, times(1)).findAchievementIdsByUser(bob);
+    }
+}
@@ -0,0 +1,33 @@
+package com.base.base.login.backend.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que la racha guardada sólo se considera vigente si el último entrenamiento fue hoy o ayer
+ */
+class UserEffectiveStreakTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 10);
+
+    @Test
+    void streakIsKeptWhenLastWorkoutWasTodayOrYesterday() {
+        assertEquals(5, User.effectiveStreak(5, TODAY, TODAY));
+        assertEquals(5, User.effectiveStreak(5, TODAY.minusDays(1), TODAY));
+    }
+
+    @Test
+    void streakIsBrokenAfterAMissedDay() {
+        assertEquals(0, User.effectiveStreak(5, TODAY.minusDays(2), TODAY));
+        assertEquals(0, User.effectiveStreak(5, TODAY.minusWeeks(3), TODAY));
+    }
+
+    @Test
+    void missingDataMeansNoStreak() {
+        assertEquals(0, User.effectiveStreak(null, TODAY, TODAY));
+        assertEquals(0, User.effectiveStreak(5, null, TODAY));
+    }
+}
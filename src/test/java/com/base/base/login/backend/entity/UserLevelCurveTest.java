@@ -0,0 +1,123 @@
+package com.base.base.login.backend.entity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que la curva de niveles precalculada da los mismos resultados
+ * que el cálculo iterativo original
+ */
+class UserLevelCurveTest {
+
+    private static final int BASE_POINTS = 100;
+    private static final int MAX_LEVEL = 99;
+
+    @Test
+    void levelMatchesLegacyForSmallAndRandomPointValues() {
+        Random random = new Random(42);
+        for (int i = 0; i < 500_000; i++) {
+            int points = i < 100_000 ? i : random.nextInt(Integer.MAX_VALUE);
+            assertLevelMatchesLegacy(1, points);
+        }
+        assertLevelMatchesLegacy(1, Integer.MAX_VALUE);
+    }
+
+    @Test
+    void levelMatchesLegacyAroundEveryReachableThreshold() {
+        for (int level = 1; level <= MAX_LEVEL; level++) {
+            long threshold = legacyCumulativePointsForLevel(level);
+            for (long delta = -1; delta <= 1; delta++) {
+                long points = threshold + delta;
+                if (points >= 0 && points <= Integer.MAX_VALUE) {
+                    assertLevelMatchesLegacy(1, (int) points);
+                }
+            }
+        }
+    }
+
+    @Test
+    void incrementalGrantsMatchLegacy() {
+        Random random = new Random(7);
+        for (int run = 0; run < 500; run++) {
+            User user = User.builder().totalPoints(0).currentLevel(1).build();
+            int legacyLevel = 1;
+            int total = 0;
+
+            while (true) {
+                int grant = 1 + random.nextInt(1 << random.nextInt(28));
+                if ((long) total + grant > Integer.MAX_VALUE) {
+                    break;
+                }
+                total += grant;
+                user.addPoints(grant);
+                legacyLevel = legacyLevel(legacyLevel, total);
+
+                assertEquals(total, user.getTotalPoints());
+                assertEquals(legacyLevel, user.getCurrentLevel(), "total=" + total);
+            }
+        }
+    }
+
+    @Test
+    void pointsForNextLevelAndBadgeMatchLegacyForAllLevels() {
+        for (int level = 1; level <= MAX_LEVEL + 1; level++) {
+            User user = User.builder().currentLevel(level).build();
+            assertEquals(legacyPointsForNextLevel(level), user.getPointsForNextLevel(), "level=" + level);
+            assertEquals(legacyBadge(level), user.getBadge(), "level=" + level);
+        }
+    }
+
+    private static void assertLevelMatchesLegacy(int startLevel, int points) {
+        User user = User.builder().totalPoints(0).currentLevel(startLevel).build();
+        user.addPoints(points);
+        int expected = points > 0 ? legacyLevel(startLevel, points) : startLevel;
+        assertEquals(expected, user.getCurrentLevel(), "points=" + points);
+    }
+
+    // Implementación original, conservada como referencia
+
+    private static int legacyLevel(int currentLevel, int totalPoints) {
+        int level = currentLevel;
+        while (level < MAX_LEVEL && totalPoints >= legacyCumulativePointsForLevel(level + 1)) {
+            level++;
+        }
+        return level;
+    }
+
+    private static long legacyCumulativePointsForLevel(int targetLevel) {
+        long total = 0;
+        long required = BASE_POINTS;
+
+        for (int lvl = 1; lvl < targetLevel && lvl < MAX_LEVEL + 1; lvl++) {
+            total = Math.min(Long.MAX_VALUE, total + required);
+            required = Math.min(Long.MAX_VALUE, required * 2);
+        }
+
+        return total;
+    }
+
+    private static Integer legacyPointsForNextLevel(int currentLevel) {
+        if (currentLevel >= MAX_LEVEL) {
+            return 0;
+        }
+
+        long required = (long) BASE_POINTS << (currentLevel - 1);
+        if (required > Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return (int) required;
+    }
+
+    private static String legacyBadge(int currentLevel) {
+        if (currentLevel >= 50) return "LEGENDARY_HERO";
+        if (currentLevel >= 40) return "MASTER_HERO";
+        if (currentLevel >= 30) return "VETERAN_HERO";
+        if (currentLevel >= 20) return "PROFESSIONAL_HERO";
+        if (currentLevel >= 10) return "ADVANCED_HERO";
+        if (currentLevel >= 5) return "INTERMEDIATE_HERO";
+        return "BEGINNER_HERO";
+    }
+}
@@ -0,0 +1,104 @@
+package com.base.base.login.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.base.base.login.backend.entity.Achievement;
+import com.base.base.login.backend.entity.Achievement.AchievementType;
+import com.base.base.login.backend.entity.User;
+
+/**
+ * Comprueba la búsqueda de umbrales superados del índice de reglas
+ */
+class AchievementRuleEngineTest {
+
+    private final AchievementRuleEngine engine = new AchievementRuleEngine();
+
+    private final Achievement first = achievement(1L, AchievementType.WORKOUT_COUNT, 1, null);
+    private final Achievement tenth = achievement(2L, AchievementType.WORKOUT_COUNT, 10, null);
+    private final Achievement fiftieth = achievement(3L, AchievementType.WORKOUT_COUNT, 50, null);
+    private final Achievement points = achievement(4L, AchievementType.TOTAL_POINTS, 500, null);
+    private final Achievement squats = achievement(5L, AchievementType.SPECIFIC_EXERCISE, 3, 7L);
+    private final Achievement manual = achievement(6L, AchievementType.WORKOUT_COUNT, null, null);
+
+    private final AchievementRuleEngine.RuleIndex index = AchievementRuleEngine.RuleIndex.of(
+        List.of(fiftieth, first, points, tenth, squats, manual));
+
+    @Test
+    void thresholdIsCrossedExactlyAtRequiredValue() {
+        assertEquals(List.of(first), crossed(user(9, 0), Set.of()));
+        assertEquals(List.of(first, tenth), crossed(user(10, 0), Set.of()));
+    }
+
+    @Test
+    void unlockedAchievementsAreSkipped() {
+        assertEquals(List.of(tenth), crossed(user(10, 0), Set.of(1L)));
+        assertEquals(List.of(), crossed(user(10, 0), Set.of(1L, 2L)));
+    }
+
+    @Test
+    void everyTypeIsEvaluatedWithItsOwnMetric() {
+        List<Achievement> result = crossed(user(0, 500), Set.of());
+        assertEquals(List.of(points), result);
+    }
+
+    @Test
+    void exerciseCompletionsAreOnlyLoadedWhenARuleNeedsThem() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Map<Long, Integer>> completions = () -> {
+            loads.incrementAndGet();
+            return Map.of(7L, 3);
+        };
+
+        List<Achievement> result = engine.findNewlyCrossed(index, user(0, 0), Set.of()::contains, completions);
+        assertTrue(result.contains(squats));
+        assertTrue(loads.get() > 0);
+
+        loads.set(0);
+        engine.findNewlyCrossed(index, user(0, 0), Set.of(5L)::contains, completions);
+        assertEquals(0, loads.get());
+    }
+
+    @Test
+    void indexAndQualifiesAgree() {
+        for (int workouts = 0; workouts <= 60; workouts++) {
+            User user = user(workouts, 0);
+            List<Achievement> result = crossed(user, Set.of());
+            for (Achievement achievement : List.of(first, tenth, fiftieth)) {
+                assertEquals(engine.qualifies(achievement, user, Map.of()), result.contains(achievement),
+                    "workouts=" + workouts + " achievement=" + achievement.getId());
+            }
+        }
+    }
+
+    private List<Achievement> crossed(User user, Set<Long> unlocked) {
+        return engine.findNewlyCrossed(index, user, unlocked::contains, Map::of);
+    }
+
+    private static User user(int workoutsCompleted, int totalPoints) {
+        return User.builder()
+            .keycloakId("user")
+            .workoutsCompleted(workoutsCompleted)
+            .totalPoints(totalPoints)
+            .currentLevel(1)
+            .build();
+    }
+
+    private static Achievement achievement(Long id, AchievementType type, Integer requiredValue, Long exerciseId) {
+        return Achievement.builder()
+            .id(id)
+            .name("achievement-" + id)
+            .type(type)
+            .requiredValue(requiredValue)
+            .exerciseId(exerciseId)
+            .build();
+    }
+}
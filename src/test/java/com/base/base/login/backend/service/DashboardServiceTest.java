@@ -0,0 +1,151 @@
+package com.base.base.login.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.base.base.login.backend.cache.DashboardCache;
+import com.base.base.login.backend.cache.UnlockedAchievementCache;
+import com.base.base.login.backend.cache.UnlockedAchievements;
+import com.base.base.login.backend.dto.DashboardDTO;
+import com.base.base.login.backend.dto.UserAchievementDTO;
+import com.base.base.login.backend.dto.UserDTO;
+import com.base.base.login.backend.dto.WorkoutDTO;
+import com.base.base.login.backend.entity.User;
+import com.base.base.login.backend.repository.UserDailyActivityRepository;
+import com.base.base.login.backend.repository.UserRepository;
+
+/**
+ * Comprueba que las secciones lentas o con error se sustituyen y marcan el dashboard como parcial,
+ * y que las transacciones de sección respetan el límite de concurrencia
+ */
+class DashboardServiceTest {
+
+    private static final long DEADLINE_MS = 300;
+
+    private final UserDailyActivityRepository dailyActivity = mock(UserDailyActivityRepository.class);
+    private final WorkoutService workoutService = mock(WorkoutService.class);
+    private final AchievementService achievementService = mock(AchievementService.class);
+    private final UserService userService = mock(UserService.class);
+    private final UnlockedAchievementCache unlockedAchievementCache = mock(UnlockedAchievementCache.class);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    private final User user = User.builder().keycloakId("alice").username("alice")
+        .workoutsCompleted(4).totalPoints(200).build();
+    private final List<WorkoutDTO> workouts = List.of(WorkoutDTO.builder().id(1L).build());
+
+    private DashboardService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void completeDashboardIsCachedAndNotPartial() {
+        stubSections();
+        service = service(4);
+
+        DashboardDTO dashboard = service.getDashboard(user);
+        service.getDashboard(user);
+
+        assertFalse(dashboard.isPartial());
+        assertNotNull(dashboard.getUser());
+        assertEquals(workouts, dashboard.getRecentWorkouts());
+        assertEquals(1, dashboard.getStats().getAchievementsUnlocked());
+        verify(workoutService, times(1)).getRecentCompletedWorkouts(user, 5);
+    }
+
+    @Test
+    void slowSectionIsReplacedAfterTheDeadline() {
+        stubSections();
+        when(workoutService.getRecentCompletedWorkouts(any(), anyInt())).thenAnswer(invocation -> {
+            Thread.sleep(DEADLINE_MS * 20);
+            return workouts;
+        });
+        service = service(4);
+
+        long start = System.nanoTime();
+        DashboardDTO dashboard = service.getDashboard(user);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(dashboard.isPartial());
+        assertEquals(List.of(), dashboard.getRecentWorkouts());
+        assertEquals(workouts, dashboard.getFavoriteWorkouts());
+        assertTrue(elapsedMs < DEADLINE_MS * 10, "elapsed=" + elapsedMs);
+    }
+
+    @Test
+    void failingSectionsFallBackAndPartialResultIsNotCached() {
+        stubSections();
+        when(achievementService.getRecentAchievements(any(), anyInt())).thenThrow(new RuntimeException("boom"));
+        when(userService.toDTO(any())).thenThrow(new RuntimeException("boom"));
+        service = service(4);
+
+        DashboardDTO dashboard = service.getDashboard(user);
+        service.getDashboard(user);
+
+        assertTrue(dashboard.isPartial());
+        assertNull(dashboard.getUser());
+        assertEquals(List.of(), dashboard.getRecentAchievements());
+        assertEquals(4, dashboard.getStats().getTotalWorkouts());
+        verify(workoutService, times(2)).getRecentCompletedWorkouts(user, 5);
+    }
+
+    @Test
+    void sectionTransactionsRespectTheConcurrencyLimit() {
+        stubSections();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        when(workoutService.getRecentCompletedWorkouts(any(), anyInt())).thenAnswer(invocation -> track(running, maxRunning));
+        when(workoutService.getRecentFavoriteWorkouts(any(), anyInt())).thenAnswer(invocation -> track(running, maxRunning));
+        service = service(1);
+
+        DashboardDTO dashboard = service.getDashboard(user);
+
+        assertFalse(dashboard.isPartial());
+        assertEquals(1, maxRunning.get());
+    }
+
+    private void stubSections() {
+        when(unlockedAchievementCache.get(any())).thenReturn(UnlockedAchievements.of(Set.of(1L)));
+        when(dailyActivity.findByUserIdAndActivityDateBetween(any(), any(), any())).thenReturn(List.of());
+        when(workoutService.getRecentCompletedWorkouts(any(), anyInt())).thenReturn(workouts);
+        when(workoutService.getRecentFavoriteWorkouts(any(), anyInt())).thenReturn(workouts);
+        when(achievementService.getRecentAchievements(any(), anyInt()))
+            .thenReturn(List.of(UserAchievementDTO.builder().id(1L).build()));
+        when(userService.toDTO(any())).thenReturn(UserDTO.builder().username("alice").build());
+    }
+
+    private DashboardService service(int maxConcurrentQueries) {
+        return new DashboardService(mock(UserRepository.class), dailyActivity, workoutService, achievementService,
+            userService, unlockedAchievementCache, new DashboardCache(100, 60), transactionTemplate,
+            DEADLINE_MS, maxConcurrentQueries);
+    }
+
+    private List<WorkoutDTO> track(AtomicInteger running, AtomicInteger maxRunning) throws InterruptedException {
+        maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+        Thread.sleep(20);
+        running.decrementAndGet();
+        return workouts;
+    }
+}
@@ -0,0 +1,59 @@
+package com.base.base.login.backend.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Comprueba que el cursor de paginación sobrevive al viaje de ida y vuelta
+ * y que un cursor manipulado se rechaza con un error de cliente
+ */
+class WorkoutCursorTest {
+
+    @Test
+    void encodeDecodeRoundTrip() {
+        WorkoutCursor cursor = new WorkoutCursor(LocalDateTime.of(2024, 3, 1, 18, 30, 5, 123_456_789), 42L);
+
+        assertEquals(cursor, WorkoutCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void roundTripKeepsWholeSecondsAndLargeIds() {
+        WorkoutCursor cursor = new WorkoutCursor(LocalDateTime.of(2024, 1, 1, 0, 0), Long.MAX_VALUE);
+
+        assertEquals(cursor, WorkoutCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void encodedCursorIsUrlSafe() {
+        String encoded = new WorkoutCursor(LocalDateTime.of(2024, 3, 1, 18, 30), 7L).encode();
+
+        assertEquals(encoded, encoded.replaceAll("[^A-Za-z0-9_-]", ""));
+    }
+
+    @Test
+    void tamperedCursorsAreRejected() {
+        String valid = new WorkoutCursor(LocalDateTime.of(2024, 3, 1, 18, 30), 7L).encode();
+
+        assertRejected("not base64!");
+        assertRejected("");
+        assertRejected(valid.substring(0, valid.length() / 2));
+        assertRejected(encode("2024-03-01T18:30"));
+        assertRejected(encode("2024-03-01T18:30|abc"));
+        assertRejected(encode("yesterday|7"));
+    }
+
+    private static void assertRejected(String cursor) {
+        RuntimeException error = assertThrows(RuntimeException.class, () -> WorkoutCursor.decode(cursor));
+        assertEquals("Cursor de paginación no válido", error.getMessage());
+    }
+
+    private static String encode(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}